@@ -2,8 +2,10 @@ package com.example.vehicleinspection.controller;
 
 import com.example.vehicleinspection.dto.AnalyticsDTO;
 import com.example.vehicleinspection.service.AnalyticsService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
@@ -32,6 +34,13 @@ public class AnalyticsController {
         return ResponseEntity.ok(analyticsService.updateAnalytics(id, analyticsDTO));
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAnalytics() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> analyticsService.exportAnalytics(out));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AnalyticsDTO> getAnalytics(@PathVariable Long id) {
         return ResponseEntity.ok(analyticsService.findById(id));
@@ -1,11 +1,21 @@
 package com.example.vehicleinspection.controller;
 
 import com.example.vehicleinspection.dto.CarDTO;
+import com.example.vehicleinspection.dto.CarFacetsDTO;
+import com.example.vehicleinspection.dto.CarSearchCriteria;
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.ImportReportDTO;
+import com.example.vehicleinspection.dto.PlateCandidateDTO;
+import com.example.vehicleinspection.dto.PlateVerificationDTO;
+import com.example.vehicleinspection.dto.TimelineEntryDTO;
 import com.example.vehicleinspection.service.CarService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -23,6 +33,16 @@ public class CarController {
         return ResponseEntity.ok(carService.createCar(carDTO));
     }
 
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<ImportReportDTO> importFleetCsv(InputStream csv) {
+        return ResponseEntity.ok(carService.importFleetCsv(csv));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReportDTO> importFleetJsonLines(InputStream jsonLines) {
+        return ResponseEntity.ok(carService.importFleetJsonLines(jsonLines));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<CarDTO> updateCar(
             @PathVariable Long id,
@@ -30,6 +50,20 @@ public class CarController {
         return ResponseEntity.ok(carService.updateCar(id, carDTO));
     }
 
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<CarDTO>> getCars(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(carService.findAllCars(cursor, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCars() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> carService.exportCars(out));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CarDTO> getCar(@PathVariable Long id) {
         return ResponseEntity.ok(carService.findById(id));
@@ -40,6 +74,27 @@ public class CarController {
         return ResponseEntity.ok(carService.findByLicensePlate(licensePlate));
     }
 
+    @GetMapping("/verify/{plate}")
+    public ResponseEntity<PlateVerificationDTO> verifyPlate(@PathVariable String plate) {
+        return ResponseEntity.ok(carService.verifyPlate(plate));
+    }
+
+    @GetMapping("/verify/{plate}/candidates")
+    public ResponseEntity<List<PlateCandidateDTO>> getPlateCandidates(
+            @PathVariable String plate,
+            @RequestParam(defaultValue = "1") int maxDistance,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(carService.findPlateCandidates(plate, maxDistance, limit));
+    }
+
+    @GetMapping("/{plate}/timeline")
+    public ResponseEntity<CursorPageDTO<TimelineEntryDTO>> getTimeline(
+            @PathVariable String plate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(carService.getTimeline(plate, cursor, size));
+    }
+
     @GetMapping("/owner/{ownerId}")
     public ResponseEntity<List<CarDTO>> getByOwner(@PathVariable Long ownerId) {
         return ResponseEntity.ok(carService.findByOwner(ownerId));
@@ -61,6 +116,18 @@ public class CarController {
         return ResponseEntity.ok(carService.findCarsWithExpiredInsurance());
     }
 
+    @GetMapping("/compliance/inspection-due")
+    public ResponseEntity<List<CarDTO>> getCarsDueForInspectionWithin(
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(carService.findCarsDueForInspectionWithin(days));
+    }
+
+    @GetMapping("/compliance/insurance-expiring")
+    public ResponseEntity<List<CarDTO>> getCarsWithInsuranceExpiringWithin(
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(carService.findCarsWithInsuranceExpiringWithin(days));
+    }
+
     @PutMapping("/{id}/inspection-status")
     public ResponseEntity<CarDTO> updateInspectionStatus(
             @PathVariable Long id,
@@ -88,16 +155,26 @@ public class CarController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<CarDTO>> searchCars(
-            @RequestParam(required = false) String make,
-            @RequestParam(required = false) String model,
+    public ResponseEntity<CursorPageDTO<CarDTO>> searchCars(
+            @ModelAttribute CarSearchCriteria criteria,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        if (year != null) {
+            criteria.setYearFrom(year);
+            criteria.setYearTo(year);
+        }
+        return ResponseEntity.ok(carService.searchCars(criteria, cursor, size));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<CarFacetsDTO> getCarFacets(
+            @ModelAttribute CarSearchCriteria criteria,
             @RequestParam(required = false) Integer year) {
-        if (make != null && model != null) {
-            return ResponseEntity.ok(carService.findByMakeAndModel(make, model));
-        } else if (year != null) {
-            return ResponseEntity.ok(carService.findByYear(year));
-        } else {
-            return ResponseEntity.badRequest().build();
+        if (year != null) {
+            criteria.setYearFrom(year);
+            criteria.setYearTo(year);
         }
+        return ResponseEntity.ok(carService.countCarFacets(criteria));
     }
 }
\ No newline at end of file
@@ -1,12 +1,21 @@
 package com.example.vehicleinspection.controller;
 
+import com.example.vehicleinspection.dto.AssignmentReportDTO;
+import com.example.vehicleinspection.dto.AvailabilityGridDTO;
+import com.example.vehicleinspection.dto.AvailableSlotDTO;
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.ImportReportDTO;
 import com.example.vehicleinspection.dto.InspectionBookingDTO;
 import com.example.vehicleinspection.model.InspectionBooking;
 import com.example.vehicleinspection.service.InspectionBookingService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,6 +34,11 @@ public class InspectionBookingController {
         return ResponseEntity.ok(bookingService.createBooking(bookingDTO));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<ImportReportDTO> importBookings(InputStream bookingsJson) {
+        return ResponseEntity.ok(bookingService.importBookings(bookingsJson));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<InspectionBookingDTO> updateBooking(
             @PathVariable Long id,
@@ -32,6 +46,13 @@ public class InspectionBookingController {
         return ResponseEntity.ok(bookingService.updateBooking(id, bookingDTO));
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bookingService.exportBookings(out));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<InspectionBookingDTO> getBooking(@PathVariable Long id) {
         return ResponseEntity.ok(bookingService.findById(id));
@@ -50,6 +71,13 @@ public class InspectionBookingController {
         return ResponseEntity.ok(bookingService.assignOfficer(id, officerId));
     }
 
+    @PostMapping("/auto-assign")
+    public ResponseEntity<AssignmentReportDTO> autoAssignOfficers(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end) {
+        return ResponseEntity.ok(bookingService.autoAssignOfficers(start, end));
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<InspectionBookingDTO> updateStatus(
             @PathVariable Long id,
@@ -73,6 +101,14 @@ public class InspectionBookingController {
         return ResponseEntity.ok(bookingService.findByStatus(status));
     }
 
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<CursorPageDTO<InspectionBookingDTO>> getPageByStatus(
+            @PathVariable InspectionBooking.InspectionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(bookingService.findByStatus(status, cursor, size));
+    }
+
     @GetMapping("/date-range")
     public ResponseEntity<List<InspectionBookingDTO>> getByDateRange(
             @RequestParam LocalDateTime start,
@@ -80,6 +116,15 @@ public class InspectionBookingController {
         return ResponseEntity.ok(bookingService.findByDateRange(start, end));
     }
 
+    @GetMapping("/date-range/page")
+    public ResponseEntity<CursorPageDTO<InspectionBookingDTO>> getPageByDateRange(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(bookingService.findByDateRange(start, end, cursor, size));
+    }
+
     @GetMapping("/officer/{officerId}/date-range")
     public ResponseEntity<List<InspectionBookingDTO>> getByOfficerAndDateRange(
             @PathVariable Long officerId,
@@ -130,6 +175,24 @@ public class InspectionBookingController {
         return ResponseEntity.ok(bookingService.getAvailableTimeSlots(officerId, date));
     }
 
+    @GetMapping("/availability-grid")
+    public ResponseEntity<AvailabilityGridDTO> getAvailabilityGrid(
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String specialization,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return ResponseEntity.ok(bookingService.getAvailabilityGrid(department, specialization, startDate, endDate));
+    }
+
+    @GetMapping("/next-available")
+    public ResponseEntity<List<AvailableSlotDTO>> getNextAvailableSlots(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) LocalDateTime after,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(bookingService.findNextAvailableSlots(
+                specialization, after != null ? after : LocalDateTime.now(), limit));
+    }
+
     @GetMapping("/statistics")
     public ResponseEntity<Object> getBookingStatistics(
             @RequestParam LocalDateTime start,
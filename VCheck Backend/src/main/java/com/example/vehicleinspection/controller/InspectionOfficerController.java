@@ -1,6 +1,10 @@
 package com.example.vehicleinspection.controller;
 
+import com.example.vehicleinspection.dto.AssignmentReportDTO;
+import com.example.vehicleinspection.dto.CursorPageDTO;
 import com.example.vehicleinspection.dto.InspectionOfficerDTO;
+import com.example.vehicleinspection.dto.OfficerRatingDTO;
+import com.example.vehicleinspection.dto.OfficerSearchCriteria;
 import com.example.vehicleinspection.service.InspectionOfficerService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -32,6 +36,13 @@ public class InspectionOfficerController {
         return ResponseEntity.ok(officerService.updateOfficer(id, officerDTO));
     }
 
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<InspectionOfficerDTO>> getOfficers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(officerService.findAllOfficers(cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<InspectionOfficerDTO> getOfficer(@PathVariable Long id) {
         return ResponseEntity.ok(officerService.findById(id));
@@ -70,6 +81,11 @@ public class InspectionOfficerController {
         return ResponseEntity.ok(officerService.updateAvailability(id, availability));
     }
 
+    @PostMapping("/{id}/reassign-bookings")
+    public ResponseEntity<AssignmentReportDTO> reassignBookings(@PathVariable Long id) {
+        return ResponseEntity.ok(officerService.reassignBookings(id));
+    }
+
     @PutMapping("/{id}/inspection-methods")
     public ResponseEntity<InspectionOfficerDTO> updateInspectionMethods(
             @PathVariable Long id,
@@ -93,6 +109,11 @@ public class InspectionOfficerController {
         return ResponseEntity.ok(officerService.getAverageRating(id));
     }
 
+    @GetMapping("/{id}/rating")
+    public ResponseEntity<OfficerRatingDTO> getRating(@PathVariable Long id) {
+        return ResponseEntity.ok(officerService.getRating(id));
+    }
+
     @GetMapping("/{id}/certifications")
     public ResponseEntity<List<String>> getCertifications(@PathVariable Long id) {
         return ResponseEntity.ok(officerService.getCertifications(id));
@@ -109,18 +130,7 @@ public class InspectionOfficerController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<InspectionOfficerDTO>> searchOfficers(
-            @RequestParam(required = false) String department,
-            @RequestParam(required = false) String specialization,
-            @RequestParam(required = false) Integer minExperience) {
-        if (department != null) {
-            return ResponseEntity.ok(officerService.findByDepartment(department));
-        } else if (specialization != null) {
-            return ResponseEntity.ok(officerService.findBySpecialization(specialization));
-        } else if (minExperience != null) {
-            return ResponseEntity.ok(officerService.findByExperience(minExperience));
-        } else {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<List<InspectionOfficerDTO>> searchOfficers(@ModelAttribute OfficerSearchCriteria criteria) {
+        return ResponseEntity.ok(officerService.searchOfficers(criteria));
     }
 }
\ No newline at end of file
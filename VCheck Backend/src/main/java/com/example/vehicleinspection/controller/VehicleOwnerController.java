@@ -1,9 +1,12 @@
 package com.example.vehicleinspection.controller;
 
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.OwnerDashboardDTO;
 import com.example.vehicleinspection.dto.VehicleOwnerDTO;
 import com.example.vehicleinspection.service.VehicleOwnerService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -30,11 +33,27 @@ public class VehicleOwnerController {
         return ResponseEntity.ok(vehicleOwnerService.updateVehicleOwner(id, vehicleOwnerDTO));
     }
 
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<VehicleOwnerDTO>> getVehicleOwners(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(vehicleOwnerService.findAllVehicleOwners(cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<VehicleOwnerDTO> getVehicleOwner(@PathVariable Long id) {
         return ResponseEntity.ok(vehicleOwnerService.findById(id));
     }
 
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<OwnerDashboardDTO> getDashboard(@PathVariable Long id, WebRequest request) {
+        String eTag = vehicleOwnerService.getDashboardETag(id);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(vehicleOwnerService.getDashboard(id));
+    }
+
     @GetMapping("/license/{driversLicense}")
     public ResponseEntity<VehicleOwnerDTO> getByDriversLicense(@PathVariable String driversLicense) {
         return ResponseEntity.ok(vehicleOwnerService.findByDriversLicense(driversLicense));
@@ -56,11 +75,25 @@ public class VehicleOwnerController {
         return ResponseEntity.ok(vehicleOwnerService.findOwnersWithPendingInspections());
     }
 
+    @GetMapping("/pending-inspections/page")
+    public ResponseEntity<CursorPageDTO<VehicleOwnerDTO>> getOwnersWithPendingInspectionsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(vehicleOwnerService.findOwnersWithPendingInspections(cursor, size));
+    }
+
     @GetMapping("/expired-insurance")
     public ResponseEntity<List<VehicleOwnerDTO>> getOwnersWithExpiredInsurance() {
         return ResponseEntity.ok(vehicleOwnerService.findOwnersWithExpiredInsurance());
     }
 
+    @GetMapping("/expired-insurance/page")
+    public ResponseEntity<CursorPageDTO<VehicleOwnerDTO>> getOwnersWithExpiredInsurancePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(vehicleOwnerService.findOwnersWithExpiredInsurance(cursor, size));
+    }
+
     @PostMapping("/{id}/vehicles/{vehicleId}")
     public ResponseEntity<VehicleOwnerDTO> addVehicle(
             @PathVariable Long id,
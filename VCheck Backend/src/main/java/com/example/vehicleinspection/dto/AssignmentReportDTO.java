@@ -0,0 +1,19 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class AssignmentReportDTO implements Serializable {
+    private int totalBookings;
+    private int assignedCount;
+
+    // Booking id -> officer id
+    private Map<Long, Long> assignments = new LinkedHashMap<>();
+    private List<Long> unassignedBookingIds = new ArrayList<>();
+}
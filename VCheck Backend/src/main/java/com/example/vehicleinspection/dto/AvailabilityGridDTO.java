@@ -0,0 +1,25 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class AvailabilityGridDTO implements Serializable {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<OfficerAvailability> officers;
+
+    @Data
+    public static class OfficerAvailability implements Serializable {
+        private Long officerId;
+        private String officerName;
+        private String badgeNumber;
+        private Map<LocalDate, List<LocalDateTime>> freeSlots;
+    }
+}
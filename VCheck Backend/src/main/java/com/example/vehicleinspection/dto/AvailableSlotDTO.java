@@ -0,0 +1,15 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+public class AvailableSlotDTO implements Serializable {
+    private Long officerId;
+    private String officerName;
+    private String officerBadgeNumber;
+    private String specialization;
+    private LocalDateTime scheduledDateTime;
+}
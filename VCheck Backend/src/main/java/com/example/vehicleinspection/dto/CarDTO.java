@@ -43,6 +43,7 @@ public class CarDTO extends BaseDTO {
     private String ownerName;
     private LocalDate lastInspectionDate;
     private String lastInspectionStatus;
+    private LocalDate nextInspectionDueDate;
     private boolean insuranceValid;
     private boolean inspectionDue;
 }
\ No newline at end of file
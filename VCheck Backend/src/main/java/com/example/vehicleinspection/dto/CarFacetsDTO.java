@@ -0,0 +1,22 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Car counts under one set of search filters, broken down per facet. Makes and models are lower-cased;
+ * cars without a value are counted under "none".
+ */
+@Data
+public class CarFacetsDTO implements Serializable {
+    private long totalCars;
+    private Map<String, Long> makes;
+    private Map<String, Long> models;
+    private Map<String, Long> years;
+    private Map<String, Long> insuranceProviders;
+    private Map<String, Long> inspectionStatuses;
+    private long inspectionDue;
+    private long insuranceValid;
+}
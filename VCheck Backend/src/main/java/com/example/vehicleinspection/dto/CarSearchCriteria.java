@@ -0,0 +1,20 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Filters of a car search. Unset fields do not filter; set fields are combined with AND.
+ */
+@Data
+public class CarSearchCriteria implements Serializable {
+    private String make;
+    private String model;
+    private Integer yearFrom;
+    private Integer yearTo;
+    private String insuranceProvider;
+    private String lastInspectionStatus;
+    private Boolean inspectionDue;
+    private Boolean insuranceValid;
+}
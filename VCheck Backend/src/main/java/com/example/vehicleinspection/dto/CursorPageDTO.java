@@ -0,0 +1,16 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+public class CursorPageDTO<T> implements Serializable {
+    private List<T> items;
+    private int size;
+
+    // Opaque position to pass back for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
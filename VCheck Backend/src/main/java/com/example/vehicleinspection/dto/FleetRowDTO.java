@@ -0,0 +1,57 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.time.LocalDate;
+
+/**
+ * One line of a fleet onboarding file: a car together with its owner. Rows sharing a driver license
+ * belong to the same owner.
+ */
+@Data
+public class FleetRowDTO {
+
+    @NotBlank(message = "Driver license number is required")
+    private String driverLicense;
+
+    @NotBlank(message = "First name is required")
+    private String firstName;
+
+    @NotBlank(message = "Last name is required")
+    private String lastName;
+
+    @Email(message = "Please provide a valid email address")
+    @NotBlank(message = "Email is required")
+    private String email;
+
+    @Pattern(regexp = "^\\+?[1-9]\\d{1,14}$", message = "Please provide a valid phone number")
+    private String phone;
+
+    @NotBlank(message = "License plate is required")
+    @Pattern(regexp = "^[A-Z0-9-]+$", message = "License plate must contain only uppercase letters, numbers and hyphens")
+    private String licensePlate;
+
+    @NotBlank(message = "Make is required")
+    private String make;
+
+    @NotBlank(message = "Model is required")
+    private String model;
+
+    @NotNull(message = "Year is required")
+    @Min(value = 1900, message = "Year must be after 1900")
+    private Integer year;
+
+    @NotBlank(message = "Insurance provider is required")
+    private String insuranceProvider;
+
+    @NotBlank(message = "Insurance policy number is required")
+    private String insurancePolicyNumber;
+
+    @NotNull(message = "Insurance expiry date is required")
+    private LocalDate insuranceExpiryDate;
+}
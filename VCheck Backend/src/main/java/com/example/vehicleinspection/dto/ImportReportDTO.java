@@ -0,0 +1,23 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReportDTO implements Serializable {
+    private int totalRows;
+    private int importedCount;
+    private int failedCount;
+    private List<RowResult> rows = new ArrayList<>();
+
+    @Data
+    public static class RowResult implements Serializable {
+        private int row;
+        private boolean imported;
+        private Long id;
+        private String error;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.vehicleinspection.dto;
+
+import com.example.vehicleinspection.model.InspectionBooking.InspectionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of a booking and the names it displays, read in a single joined query.
+ */
+public interface InspectionBookingView {
+    Long getId();
+    LocalDateTime getScheduledDateTime();
+    LocalDateTime getCompletedDateTime();
+    InspectionStatus getStatus();
+    String getInspectionType();
+    String getNotes();
+    String getResult();
+    String getRecommendations();
+
+    Long getVehicleOwnerId();
+    String getOwnerFirstName();
+    String getOwnerLastName();
+
+    Long getCarId();
+    String getCarLicensePlate();
+
+    Long getInspectionOfficerId();
+    String getOfficerFirstName();
+    String getOfficerLastName();
+    String getOfficerBadgeNumber();
+}
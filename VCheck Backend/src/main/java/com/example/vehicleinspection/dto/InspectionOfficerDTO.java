@@ -42,4 +42,7 @@ public class InspectionOfficerDTO extends BaseDTO {
     private String nextAvailableSlot;
     private List<String> certifications;
     private int inspectionsToday;
+
+    // Bookings left without an officer when the officer was made unavailable
+    private List<Long> unassignedBookingIds;
 }
\ No newline at end of file
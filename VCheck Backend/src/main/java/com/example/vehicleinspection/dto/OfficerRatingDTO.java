@@ -0,0 +1,14 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+public class OfficerRatingDTO implements Serializable {
+    private Long officerId;
+    private long scoreCount;
+    private double averageScore;
+    private double variance;
+    private double standardDeviation;
+}
@@ -0,0 +1,20 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filters of an officer search. Unset fields do not filter; set fields are combined with AND, and an
+ * officer must know every listed inspection method. Text matches ignore case.
+ */
+@Data
+public class OfficerSearchCriteria implements Serializable {
+    private String department;
+    private String specialization;
+    private Integer minExperience;
+    private List<String> inspectionMethods = new ArrayList<>();
+    private Boolean available;
+}
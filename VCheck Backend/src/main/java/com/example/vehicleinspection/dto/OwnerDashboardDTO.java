@@ -0,0 +1,53 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OwnerDashboardDTO implements Serializable {
+    private VehicleOwnerDTO owner;
+    private List<Vehicle> vehicles = new ArrayList<>();
+    private List<UpcomingBooking> upcomingBookings = new ArrayList<>();
+    private long unreadNotifications;
+    private List<RecentReport> recentReports = new ArrayList<>();
+
+    @Data
+    public static class Vehicle implements Serializable {
+        private Long id;
+        private String licensePlate;
+        private String make;
+        private String model;
+        private Integer year;
+        private LocalDate nextInspectionDueDate;
+        private boolean inspectionDue;
+        private LocalDate insuranceExpiryDate;
+        private boolean insuranceValid;
+    }
+
+    @Data
+    public static class UpcomingBooking implements Serializable {
+        private Long id;
+        private Long carId;
+        private String licensePlate;
+        private LocalDateTime scheduledDateTime;
+        private String status;
+        private String inspectionType;
+    }
+
+    @Data
+    public static class RecentReport implements Serializable {
+        private Long id;
+        private Long bookingId;
+        private String licensePlate;
+        private LocalDateTime inspectionDate;
+        private boolean passed;
+        private double score;
+        private int defectsFound;
+        private String reportStatus;
+    }
+}
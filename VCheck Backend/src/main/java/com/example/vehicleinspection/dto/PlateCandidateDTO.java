@@ -0,0 +1,15 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Data
+public class PlateCandidateDTO implements Serializable {
+    private Long carId;
+    private String licensePlate;
+    // Edits between the scanned and registered plate once OCR look-alikes are folded, 0 is a look-alike match
+    private int distance;
+    // Edits between the plates as written, breaks ties in favour of the literal reading
+    private int exactDistance;
+}
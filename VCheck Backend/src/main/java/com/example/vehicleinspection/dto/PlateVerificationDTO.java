@@ -0,0 +1,26 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+public class PlateVerificationDTO implements Serializable {
+    private String normalizedPlate;
+    private boolean registered;
+
+    // Only set when the plate is registered
+    private Long carId;
+    private String licensePlate;
+    private String make;
+    private String model;
+    private Integer year;
+    private Long ownerId;
+    private String ownerName;
+    private LocalDate insuranceExpiryDate;
+    private boolean insuranceValid;
+    private LocalDate lastInspectionDate;
+    private String lastInspectionStatus;
+    private boolean inspectionDue;
+}
@@ -0,0 +1,27 @@
+package com.example.vehicleinspection.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+public class TimelineEntryDTO implements Serializable {
+
+    public static final String BOOKING = "BOOKING";
+    public static final String INSPECTION_RESULT = "INSPECTION_RESULT";
+    public static final String PUBLICATION = "PUBLICATION";
+
+    private String type;
+    private Long id;
+    // Booking an inspection result belongs to, null for other entries
+    private Long bookingId;
+    private LocalDateTime occurredAt;
+    private String title;
+    private String status;
+
+    // Inspection results only
+    private Boolean passed;
+    private Double score;
+    private Integer defectsFound;
+}
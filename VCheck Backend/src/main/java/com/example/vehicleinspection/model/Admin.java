@@ -1,11 +1,13 @@
 package com.example.vehicleinspection.model;
 
+import com.example.vehicleinspection.model.listener.UniqueKeyListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
+@EntityListeners(UniqueKeyListener.class)
 public class Admin {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,17 +1,21 @@
 package com.example.vehicleinspection.model;
 
+import com.example.vehicleinspection.model.listener.OfficerRatingListener;
+import com.example.vehicleinspection.model.listener.OwnerVersionListener;
+import com.example.vehicleinspection.model.listener.TimelineInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
+@EntityListeners({TimelineInvalidator.class, OwnerVersionListener.class, OfficerRatingListener.class})
 public class Analytics {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "inspection_id")
     private InspectionBooking inspection;
 
@@ -1,26 +1,60 @@
 package com.example.vehicleinspection.model;
 
+import com.example.vehicleinspection.model.listener.CarIndexListener;
+import com.example.vehicleinspection.model.listener.OwnerCounterListener;
+import com.example.vehicleinspection.model.listener.OwnerVersionListener;
+import com.example.vehicleinspection.model.listener.UniqueKeyListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.time.Period;
+import java.util.Locale;
 
 @Entity
 @Data
+@EntityListeners({UniqueKeyListener.class, OwnerVersionListener.class, OwnerCounterListener.class,
+        CarIndexListener.class})
+@Table(indexes = {
+    @Index(name = "idx_car_normalized_plate", columnList = "normalized_plate"),
+    @Index(name = "idx_car_make_model_year", columnList = "make_key, model_key, year"),
+    @Index(name = "idx_car_year", columnList = "year"),
+    @Index(name = "idx_car_insurance_provider", columnList = "insurance_provider"),
+    @Index(name = "idx_car_inspection_status", columnList = "last_inspection_status"),
+    @Index(name = "idx_car_next_inspection_due", columnList = "next_inspection_due_date"),
+    @Index(name = "idx_car_insurance_expiry", columnList = "insurance_expiry_date"),
+    @Index(name = "idx_car_owner_inspection_due", columnList = "owner_id, next_inspection_due_date"),
+    @Index(name = "idx_car_owner_insurance_expiry", columnList = "owner_id, insurance_expiry_date")
+})
 public class Car {
+
+    public static final Period INSPECTION_INTERVAL = Period.ofYears(1);
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_seq")
+    @SequenceGenerator(name = "car_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
     private String licensePlate;
 
+    // Plate as a scanner reads it, see normalizePlate
+    @Column(name = "normalized_plate")
+    private String normalizedPlate;
+
     @Column(nullable = false)
     private String make;
 
     @Column(nullable = false)
     private String model;
 
+    // Lower-cased make and model, so case-insensitive search can use an index
+    @Column(name = "make_key")
+    private String makeKey;
+
+    @Column(name = "model_key")
+    private String modelKey;
+
     private Integer year;
 
     @Column(nullable = false)
@@ -35,4 +69,61 @@ public class Car {
 
     private LocalDate lastInspectionDate;
     private String lastInspectionStatus;
+
+    // First day the car is due again, kept in step with lastInspectionDate by its setter
+    @Column(name = "next_inspection_due_date")
+    private LocalDate nextInspectionDueDate;
+
+    public void setLastInspectionDate(LocalDate lastInspectionDate) {
+        this.lastInspectionDate = lastInspectionDate;
+        // Cleared, the car counts as never inspected and is due from the next write on
+        nextInspectionDueDate = lastInspectionDate != null ? lastInspectionDate.plus(INSPECTION_INTERVAL) : null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateDerivedFields() {
+        normalizedPlate = normalizePlate(licensePlate);
+        makeKey = searchKey(make);
+        modelKey = searchKey(model);
+        if (nextInspectionDueDate == null) {
+            // Never inspected, so due from the day it is registered
+            nextInspectionDueDate = lastInspectionDate != null
+                    ? lastInspectionDate.plus(INSPECTION_INTERVAL)
+                    : LocalDate.now();
+        }
+    }
+
+    /**
+     * A car is due for inspection from {@link #INSPECTION_INTERVAL} after its last one, and straight away if
+     * it was never inspected.
+     */
+    public static boolean isInspectionDue(LocalDate nextInspectionDueDate, LocalDate today) {
+        return nextInspectionDueDate == null || !nextInspectionDueDate.isAfter(today);
+    }
+
+    public static boolean isInsuranceValid(LocalDate insuranceExpiryDate, LocalDate today) {
+        return insuranceExpiryDate != null && insuranceExpiryDate.isAfter(today);
+    }
+
+    public static String searchKey(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folds case and drops separators, so "abc 123", "ABC-123" and "ABC.123" are the same plate.
+     */
+    public static String normalizePlate(String plate) {
+        if (plate == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(plate.length());
+        for (int i = 0; i < plate.length(); i++) {
+            char c = plate.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toUpperCase(c));
+            }
+        }
+        return normalized.toString();
+    }
 }
\ No newline at end of file
@@ -1,14 +1,25 @@
 package com.example.vehicleinspection.model;
 
+import com.example.vehicleinspection.model.listener.OfficerStatsListener;
+import com.example.vehicleinspection.model.listener.OwnerVersionListener;
+import com.example.vehicleinspection.model.listener.SlotReleaseListener;
+import com.example.vehicleinspection.model.listener.TimelineInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
+@EntityListeners({TimelineInvalidator.class, OwnerVersionListener.class, OfficerStatsListener.class,
+        SlotReleaseListener.class})
+@Table(indexes = {
+    @Index(name = "idx_booking_status_id", columnList = "status, id"),
+    @Index(name = "idx_booking_schedule_id", columnList = "scheduled_date_time, id")
+})
 public class InspectionBooking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inspection_booking_seq")
+    @SequenceGenerator(name = "inspection_booking_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
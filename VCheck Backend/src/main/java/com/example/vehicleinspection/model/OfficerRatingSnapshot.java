@@ -0,0 +1,29 @@
+package com.example.vehicleinspection.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of one officer's running score statistics: count, mean and the sum of squared
+ * deviations. Every row of a snapshot covers the inspection results up to the same analytics id, so a
+ * restart only has to scan the results added since.
+ */
+@Entity
+@Data
+public class OfficerRatingSnapshot {
+    @Id
+    private Long officerId;
+
+    private long scoreCount;
+    private double meanScore;
+    private double squaredDeviations;
+    private Long throughAnalyticsId;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.vehicleinspection.model;
 
+import com.example.vehicleinspection.model.listener.OwnerVersionListener;
+import com.example.vehicleinspection.model.listener.TimelineInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
 @Data
+@EntityListeners({TimelineInvalidator.class, OwnerVersionListener.class})
 public class Publication {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "publication_seq")
+    @SequenceGenerator(name = "publication_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -36,6 +40,12 @@ public class Publication {
     private boolean sendSMS;
     private boolean sendPushNotification;
 
+    // Car an automatic reminder is about, and a key identifying the reminder so it is only sent once
+    private Long carId;
+
+    @Column(unique = true)
+    private String reminderKey;
+
     public enum NotificationType {
         INSPECTION_REMINDER,
         INSPECTION_RESULT,
@@ -0,0 +1,43 @@
+package com.example.vehicleinspection.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"officer_id", "slot_start"}))
+public class SlotClaim {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "slot_claim_seq")
+    @SequenceGenerator(name = "slot_claim_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "officer_id", nullable = false)
+    private Long officerId;
+
+    // Start of the hourly slot the booking falls into
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(name = "booking_id", nullable = false, unique = true)
+    private Long bookingId;
+
+    // Only maps the foreign key, so the database drops the claim with its booking however that is deleted
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private InspectionBooking booking;
+}
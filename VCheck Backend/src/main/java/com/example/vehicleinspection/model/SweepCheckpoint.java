@@ -0,0 +1,30 @@
+package com.example.vehicleinspection.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a batch job that walks a table in id order, so a restarted run resumes after the last
+ * committed chunk.
+ */
+@Entity
+@Data
+public class SweepCheckpoint {
+    @Id
+    private String name;
+
+    private LocalDate runDate;
+    private Long lastProcessedId;
+    private long processedCount;
+    private long createdCount;
+    private boolean completed;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.vehicleinspection.model;
 
+import com.example.vehicleinspection.model.listener.OwnerVersionListener;
+import com.example.vehicleinspection.model.listener.UniqueKeyListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Data
+// Updates write only changed columns, so saving an owner never puts back counters it read earlier
+@DynamicUpdate
+@EntityListeners({UniqueKeyListener.class, OwnerVersionListener.class})
 public class VehicleOwner {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_owner_seq")
+    @SequenceGenerator(name = "vehicle_owner_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -26,4 +34,20 @@ public class VehicleOwner {
 
     @OneToMany(mappedBy = "vehicleOwner", cascade = CascadeType.ALL)
     private List<InspectionBooking> inspectionBookings = new ArrayList<>();
+
+    // Counters over the owner's cars, kept up to date by OwnerCounters and repaired by OwnerCounterReconciler
+    private long vehicleCount;
+    private long pendingInspectionCount;
+    private LocalDate latestInspectionDate;
+
+    // Day the pending count was last recomputed for; cars fall due as days pass without any write
+    private LocalDate countersDate;
+
+    @PrePersist
+    void initCounters() {
+        // Counters start at zero, cars persisted along with the owner are counted as they are written
+        if (countersDate == null) {
+            countersDate = LocalDate.now();
+        }
+    }
 }
\ No newline at end of file
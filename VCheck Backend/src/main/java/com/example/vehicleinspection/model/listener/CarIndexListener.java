@@ -0,0 +1,42 @@
+package com.example.vehicleinspection.model.listener;
+
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.service.impl.CarFacetIndex;
+import com.example.vehicleinspection.service.impl.ComplianceSchedule;
+import com.example.vehicleinspection.service.impl.FuzzyPlateIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener keeping the in-memory car indexes in step with every car write, including cars removed
+ * from their owner or deleted along with it.
+ */
+public class CarIndexListener {
+
+    private final FuzzyPlateIndex fuzzyPlateIndex;
+    private final CarFacetIndex carFacetIndex;
+    private final ComplianceSchedule complianceSchedule;
+
+    public CarIndexListener(FuzzyPlateIndex fuzzyPlateIndex, CarFacetIndex carFacetIndex,
+                            ComplianceSchedule complianceSchedule) {
+        this.fuzzyPlateIndex = fuzzyPlateIndex;
+        this.carFacetIndex = carFacetIndex;
+        this.complianceSchedule = complianceSchedule;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void written(Car car) {
+        fuzzyPlateIndex.put(car.getId(), car.getLicensePlate());
+        carFacetIndex.put(car);
+        complianceSchedule.put(car);
+    }
+
+    @PostRemove
+    void removed(Car car) {
+        fuzzyPlateIndex.remove(car.getId());
+        carFacetIndex.remove(car.getId());
+        complianceSchedule.remove(car.getId());
+    }
+}
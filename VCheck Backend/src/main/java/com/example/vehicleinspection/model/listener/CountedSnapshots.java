@@ -0,0 +1,49 @@
+package com.example.vehicleinspection.model.listener;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * State each entity was last counted under, per persistence context. Snapshots are keyed on the holder
+ * Spring binds the entity manager with, so they go away together with the persistence context.
+ */
+final class CountedSnapshots<S> {
+
+    // Looked up lazily, the listeners are created while the factory is being built
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final Map<Object, Map<Object, S>> snapshotsByContext = Collections.synchronizedMap(new WeakHashMap<>());
+
+    CountedSnapshots(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    S get(Object entity, S absent) {
+        Map<Object, S> snapshots = snapshots();
+        S snapshot = snapshots != null ? snapshots.get(entity) : null;
+        return snapshot != null ? snapshot : absent;
+    }
+
+    void put(Object entity, S snapshot) {
+        Map<Object, S> snapshots = snapshots();
+        if (snapshots != null) {
+            snapshots.put(entity, snapshot);
+        }
+    }
+
+    S remove(Object entity, S absent) {
+        Map<Object, S> snapshots = snapshots();
+        S snapshot = snapshots != null ? snapshots.remove(entity) : null;
+        return snapshot != null ? snapshot : absent;
+    }
+
+    private Map<Object, S> snapshots() {
+        Object holder = TransactionSynchronizationManager.getResource(entityManagerFactory.getObject());
+        return holder != null ? snapshotsByContext.computeIfAbsent(holder, key -> new IdentityHashMap<>()) : null;
+    }
+}
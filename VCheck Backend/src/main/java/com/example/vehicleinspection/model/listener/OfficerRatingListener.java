@@ -0,0 +1,58 @@
+package com.example.vehicleinspection.model.listener;
+
+import com.example.vehicleinspection.model.Analytics;
+import com.example.vehicleinspection.service.impl.OfficerRatings;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Entity listener passing inspection score writes to {@link OfficerRatings}, with the booking and score
+ * they were last counted under.
+ */
+public class OfficerRatingListener {
+
+    private static final Counted NOT_COUNTED = new Counted(null, null);
+
+    private final OfficerRatings officerRatings;
+    private final CountedSnapshots<Counted> counted;
+
+    public OfficerRatingListener(OfficerRatings officerRatings,
+                                 ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.officerRatings = officerRatings;
+        this.counted = new CountedSnapshots<>(entityManagerFactory);
+    }
+
+    @PostLoad
+    void loaded(Analytics analytics) {
+        counted.put(analytics, Counted.of(analytics));
+    }
+
+    @PostPersist
+    @PostUpdate
+    void written(Analytics analytics) {
+        Counted previous = counted.get(analytics, NOT_COUNTED);
+        Counted current = Counted.of(analytics);
+        if (!previous.equals(current)) {
+            officerRatings.scoreChanged(analytics.getId(), previous.bookingId(), previous.score(),
+                    current.bookingId(), current.score());
+        }
+        counted.put(analytics, current);
+    }
+
+    @PostRemove
+    void removed(Analytics analytics) {
+        Counted previous = counted.remove(analytics, NOT_COUNTED);
+        officerRatings.scoreChanged(null, previous.bookingId(), previous.score(), null, null);
+    }
+
+    private record Counted(Long bookingId, Double score) {
+        static Counted of(Analytics analytics) {
+            return new Counted(analytics.getInspection() != null ? analytics.getInspection().getId() : null,
+                    analytics.getInspectionScore());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.vehicleinspection.model.listener;
+
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.service.impl.OfficerStats;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity listener passing booking state transitions to {@link OfficerStats}: the officer, status and time
+ * a booking was last counted under, and its new ones.
+ */
+public class OfficerStatsListener {
+
+    private static final Counted NOT_COUNTED = new Counted(null, null, null);
+
+    private final OfficerStats officerStats;
+    private final CountedSnapshots<Counted> counted;
+
+    public OfficerStatsListener(OfficerStats officerStats, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.officerStats = officerStats;
+        this.counted = new CountedSnapshots<>(entityManagerFactory);
+    }
+
+    @PostLoad
+    void loaded(InspectionBooking booking) {
+        counted.put(booking, Counted.of(booking));
+    }
+
+    @PostPersist
+    @PostUpdate
+    void written(InspectionBooking booking) {
+        Counted previous = counted.get(booking, NOT_COUNTED);
+        Counted current = Counted.of(booking);
+        if (!previous.equals(current)) {
+            officerStats.bookingChanged(previous.officerId(), previous.status(), previous.scheduledDateTime(),
+                    current.officerId(), current.status(), current.scheduledDateTime());
+        }
+        counted.put(booking, current);
+    }
+
+    @PostRemove
+    void removed(InspectionBooking booking) {
+        Counted previous = counted.remove(booking, NOT_COUNTED);
+        officerStats.bookingChanged(previous.officerId(), previous.status(), previous.scheduledDateTime(),
+                null, null, null);
+    }
+
+    private record Counted(Long officerId, InspectionBooking.InspectionStatus status,
+                           LocalDateTime scheduledDateTime) {
+        static Counted of(InspectionBooking booking) {
+            return new Counted(booking.getInspectionOfficer() != null ? booking.getInspectionOfficer().getId() : null,
+                    booking.getStatus(), booking.getScheduledDateTime());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.vehicleinspection.model.listener;
+
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.service.impl.OwnerCounters;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDate;
+
+/**
+ * Entity listener passing every car write to {@link OwnerCounters}, with the owner and inspection dates
+ * the car was last counted under.
+ */
+public class OwnerCounterListener {
+
+    private static final Counted NOT_COUNTED = new Counted(null, null, null);
+
+    private final OwnerCounters ownerCounters;
+    private final CountedSnapshots<Counted> counted;
+
+    public OwnerCounterListener(OwnerCounters ownerCounters, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.ownerCounters = ownerCounters;
+        this.counted = new CountedSnapshots<>(entityManagerFactory);
+    }
+
+    @PostLoad
+    void loaded(Car car) {
+        counted.put(car, Counted.of(car));
+    }
+
+    @PostPersist
+    @PostUpdate
+    void written(Car car) {
+        Counted previous = counted.get(car, NOT_COUNTED);
+        Counted current = Counted.of(car);
+        ownerCounters.carChanged(previous.ownerId(), previous.nextInspectionDueDate(), previous.lastInspectionDate(),
+                current.ownerId(), current.nextInspectionDueDate(), current.lastInspectionDate());
+        counted.put(car, current);
+    }
+
+    @PostRemove
+    void removed(Car car) {
+        Counted previous = counted.remove(car, NOT_COUNTED);
+        ownerCounters.carChanged(previous.ownerId(), previous.nextInspectionDueDate(), previous.lastInspectionDate(),
+                null, null, null);
+    }
+
+    private record Counted(Long ownerId, LocalDate nextInspectionDueDate, LocalDate lastInspectionDate) {
+        static Counted of(Car car) {
+            // Reads the id off the lazy owner without loading it
+            return new Counted(car.getOwner() != null ? car.getOwner().getId() : null,
+                    car.getNextInspectionDueDate(), car.getLastInspectionDate());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.vehicleinspection.model.listener;
+
+import com.example.vehicleinspection.model.Analytics;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.Publication;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.service.impl.OwnerDashboardVersions;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener bumping {@link OwnerDashboardVersions} for every write that shows on an owner's
+ * dashboard.
+ */
+public class OwnerVersionListener {
+
+    private final OwnerDashboardVersions dashboardVersions;
+
+    public OwnerVersionListener(OwnerDashboardVersions dashboardVersions) {
+        this.dashboardVersions = dashboardVersions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void written(Object entity) {
+        if (entity instanceof VehicleOwner owner) {
+            dashboardVersions.ownerChanged(owner.getId());
+        } else if (entity instanceof Car car) {
+            dashboardVersions.carChanged(car.getId(), car.getOwner() != null ? car.getOwner().getId() : null);
+        } else if (entity instanceof InspectionBooking booking) {
+            dashboardVersions.bookingChanged(booking.getId(),
+                    booking.getVehicleOwner() != null ? booking.getVehicleOwner().getId() : null);
+        } else if (entity instanceof Analytics analytics) {
+            if (analytics.getInspection() != null) {
+                dashboardVersions.inspectionResultChanged(analytics.getInspection().getId());
+            }
+        } else if (entity instanceof Publication publication && publication.getVehicleOwner() != null) {
+            dashboardVersions.ownerChanged(publication.getVehicleOwner().getId());
+        }
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        // A removed car or booking is forgotten, and its owner bumped as for any other write
+        if (entity instanceof Car car) {
+            dashboardVersions.carChanged(car.getId(), null);
+            if (car.getOwner() != null) {
+                dashboardVersions.ownerChanged(car.getOwner().getId());
+            }
+        } else if (entity instanceof InspectionBooking booking) {
+            dashboardVersions.bookingChanged(booking.getId(), null);
+            if (booking.getVehicleOwner() != null) {
+                dashboardVersions.ownerChanged(booking.getVehicleOwner().getId());
+            }
+        } else {
+            written(entity);
+        }
+    }
+}
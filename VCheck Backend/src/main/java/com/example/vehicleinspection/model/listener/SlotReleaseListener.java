@@ -0,0 +1,22 @@
+package com.example.vehicleinspection.model.listener;
+
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.service.impl.SlotReservations;
+import jakarta.persistence.PostRemove;
+
+/**
+ * Entity listener freeing the slots of deleted bookings, including those deleted along with their owner.
+ */
+public class SlotReleaseListener {
+
+    private final SlotReservations slotReservations;
+
+    public SlotReleaseListener(SlotReservations slotReservations) {
+        this.slotReservations = slotReservations;
+    }
+
+    @PostRemove
+    void removed(InspectionBooking booking) {
+        slotReservations.removed(booking.getId());
+    }
+}
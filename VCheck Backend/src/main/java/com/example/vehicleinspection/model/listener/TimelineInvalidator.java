@@ -0,0 +1,41 @@
+package com.example.vehicleinspection.model.listener;
+
+import com.example.vehicleinspection.model.Analytics;
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.Publication;
+import com.example.vehicleinspection.service.impl.VehicleTimelineCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener evicting car timelines from {@link VehicleTimelineCache} whenever one of their bookings,
+ * inspection results or publications is written.
+ */
+public class TimelineInvalidator {
+
+    private final VehicleTimelineCache timelineCache;
+
+    public TimelineInvalidator(VehicleTimelineCache timelineCache) {
+        this.timelineCache = timelineCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void changed(Object entity) {
+        if (entity instanceof InspectionBooking booking) {
+            // The booking may have moved from another car, whose timeline still lists it
+            timelineCache.invalidateBooking(booking.getId());
+            if (booking.getCar() != null) {
+                timelineCache.invalidateCar(booking.getCar().getId());
+            }
+        } else if (entity instanceof Analytics analytics) {
+            if (analytics.getInspection() != null) {
+                timelineCache.invalidateBooking(analytics.getInspection().getId());
+            }
+        } else if (entity instanceof Publication publication) {
+            timelineCache.invalidateCar(publication.getCarId());
+        }
+    }
+}
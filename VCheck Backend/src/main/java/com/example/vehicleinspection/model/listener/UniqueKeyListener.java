@@ -0,0 +1,48 @@
+package com.example.vehicleinspection.model.listener;
+
+import com.example.vehicleinspection.model.Admin;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.service.impl.UniquenessGuard;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Entity listener keeping {@link UniquenessGuard} in step with every write of an admin, car or owner.
+ */
+public class UniqueKeyListener {
+
+    private final UniquenessGuard uniquenessGuard;
+
+    public UniqueKeyListener(UniquenessGuard uniquenessGuard) {
+        this.uniquenessGuard = uniquenessGuard;
+    }
+
+    // Adding is idempotent, so updates simply add the current keys; a replaced key lingers until a rebuild
+    @PrePersist
+    @PreUpdate
+    void written(Object entity) {
+        if (entity instanceof Admin admin) {
+            uniquenessGuard.add(UniquenessGuard.Key.ADMIN_USERNAME, admin.getUsername());
+            uniquenessGuard.add(UniquenessGuard.Key.ADMIN_EMAIL, admin.getEmail());
+        } else if (entity instanceof Car car) {
+            // Listeners run before the entity's own callbacks, so the normalized plate is not set yet
+            uniquenessGuard.add(UniquenessGuard.Key.CAR_PLATE, Car.normalizePlate(car.getLicensePlate()));
+        } else if (entity instanceof VehicleOwner owner) {
+            uniquenessGuard.add(UniquenessGuard.Key.DRIVER_LICENSE, owner.getDriverLicense());
+        }
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        if (entity instanceof Admin) {
+            uniquenessGuard.removed(UniquenessGuard.Key.ADMIN_USERNAME);
+            uniquenessGuard.removed(UniquenessGuard.Key.ADMIN_EMAIL);
+        } else if (entity instanceof Car) {
+            uniquenessGuard.removed(UniquenessGuard.Key.CAR_PLATE);
+        } else if (entity instanceof VehicleOwner) {
+            uniquenessGuard.removed(UniquenessGuard.Key.DRIVER_LICENSE);
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.example.vehicleinspection.repository;
 
 import com.example.vehicleinspection.model.Admin;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AdminRepository extends JpaRepository<Admin, Long> {
+public interface AdminRepository extends BaseRepository<Admin, Long> {
     Optional<Admin> findByUsername(String username);
     Optional<Admin> findByEmail(String email);
     List<Admin> findByDepartment(String department);
@@ -18,4 +18,10 @@ public interface AdminRepository extends JpaRepository<Admin, Long> {
     List<Admin> findByCanViewAnalyticsTrue();
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT a.username FROM Admin a")
+    List<String> findAllUsernames();
+
+    @Query("SELECT a.email FROM Admin a WHERE a.email IS NOT NULL")
+    List<String> findAllEmails();
 }
\ No newline at end of file
@@ -2,16 +2,22 @@ package com.example.vehicleinspection.repository;
 
 import com.example.vehicleinspection.model.Analytics;
 import com.example.vehicleinspection.model.InspectionBooking;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface AnalyticsRepository extends JpaRepository<Analytics, Long> {
+public interface AnalyticsRepository extends BaseRepository<Analytics, Long> {
     List<Analytics> findByInspectionDate(LocalDateTime date);
     List<Analytics> findByInspectionDateBetween(LocalDateTime start, LocalDateTime end);
     List<Analytics> findByPassedInspection(boolean passed);
@@ -27,4 +33,23 @@ public interface AnalyticsRepository extends JpaRepository<Analytics, Long> {
     List<Object[]> getInspectionsByVehicleCategory(LocalDateTime start, LocalDateTime end);
     
     Optional<Analytics> findByInspection(InspectionBooking inspection);
+
+    @Query("SELECT a.id, b.id, COALESCE(a.inspectionDate, a.reportGeneratedAt, b.completedDateTime, b.scheduledDateTime), " +
+           "a.inspectionType, a.reportStatus, a.passedInspection, a.inspectionScore, a.defectsFound " +
+           "FROM Analytics a JOIN a.inspection b WHERE b.car.id = ?1")
+    List<Object[]> findTimelineRowsByCarId(Long carId);
+
+    @Query("SELECT a.id, b.id, b.car.licensePlate, a.inspectionDate, a.passedInspection, a.inspectionScore, " +
+           "a.defectsFound, a.reportStatus FROM Analytics a JOIN a.inspection b WHERE b.vehicleOwner.id = ?1 " +
+           "ORDER BY a.inspectionDate DESC, a.id DESC")
+    List<Object[]> findRecentReportRowsByOwnerId(Long ownerId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.id, o.id, a.inspectionScore FROM Analytics a JOIN a.inspection b JOIN b.inspectionOfficer o " +
+           "WHERE a.id > ?1 ORDER BY a.id")
+    Stream<Object[]> streamOfficerScoresAfter(Long afterId);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Analytics a ORDER BY a.id")
+    Stream<Analytics> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.vehicleinspection.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+
+@NoRepositoryBean
+public interface BaseRepository<T, ID> extends JpaRepository<T, ID> {
+    List<T> findAllByOrderByIdAsc(Pageable pageable);
+    List<T> findByIdGreaterThanOrderByIdAsc(ID id, Pageable pageable);
+}
@@ -2,18 +2,72 @@ package com.example.vehicleinspection.repository;
 
 import com.example.vehicleinspection.model.Car;
 import com.example.vehicleinspection.model.VehicleOwner;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long> {
+public interface CarRepository extends BaseRepository<Car, Long> {
     Optional<Car> findByLicensePlate(String licensePlate);
     List<Car> findByOwner(VehicleOwner owner);
     List<Car> findByLastInspectionDateBefore(LocalDate date);
     List<Car> findByInsuranceExpiryDateBefore(LocalDate date);
+    long countByOwnerId(Long ownerId);
+    List<Car> findByOwnerIdOrderById(Long ownerId);
+
+    @Query("SELECT COUNT(c) FROM Car c WHERE c.owner.id = ?1 " +
+           "AND (c.nextInspectionDueDate IS NULL OR c.nextInspectionDueDate <= ?2)")
+    long countInspectionDueByOwnerId(Long ownerId, LocalDate dueBy);
+
+    // Per owner: car count, cars due for inspection by the date, and the latest inspection
+    @Query("SELECT c.owner.id, COUNT(c), " +
+           "SUM(CASE WHEN c.nextInspectionDueDate IS NULL OR c.nextInspectionDueDate <= ?2 THEN 1 ELSE 0 END), " +
+           "MAX(c.lastInspectionDate) FROM Car c WHERE c.owner.id IN ?1 GROUP BY c.owner.id")
+    List<Object[]> summarizeByOwnerIds(Collection<Long> ownerIds, LocalDate dueBy);
+
+    @Query("SELECT c.owner.id, c.id FROM Car c WHERE c.owner.id IN ?1 ORDER BY c.id")
+    List<Object[]> findIdsByOwnerIds(Collection<Long> ownerIds);
     boolean existsByLicensePlate(String licensePlate);
+
+    @Query("SELECT c.id, c.make, c.model, c.year, c.insuranceProvider, c.lastInspectionStatus, " +
+           "c.nextInspectionDueDate, c.insuranceExpiryDate FROM Car c")
+    List<Object[]> findAllFacetRows();
+
+    @Query("SELECT c.id, c.nextInspectionDueDate, c.insuranceExpiryDate FROM Car c")
+    List<Object[]> findAllComplianceDates();
+
+    @Query("SELECT c FROM Car c JOIN FETCH c.owner WHERE c.id IN ?1")
+    List<Car> findAllWithOwnerByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c.id, c.owner.id, c.licensePlate, c.nextInspectionDueDate, c.insuranceExpiryDate FROM Car c " +
+           "WHERE c.id > ?1 AND (c.nextInspectionDueDate <= ?2 OR c.insuranceExpiryDate <= ?3) ORDER BY c.id")
+    List<Object[]> findComplianceCandidatesAfter(Long afterId, LocalDate inspectionDueBy,
+                                                 LocalDate insuranceExpiringBy, Pageable pageable);
+
+    @Query("SELECT c.id, c.licensePlate FROM Car c")
+    List<Object[]> findAllPlates();
+
+    @Query("SELECT c.id FROM Car c WHERE c.normalizedPlate = ?1 ORDER BY c.id")
+    List<Long> findIdsByNormalizedPlate(String normalizedPlate);
+
+    @Query("SELECT c.normalizedPlate FROM Car c WHERE c.normalizedPlate IN ?1")
+    List<String> findExistingNormalizedPlates(Collection<String> normalizedPlates);
+
+    @Query("SELECT c FROM Car c JOIN FETCH c.owner WHERE c.normalizedPlate = ?1 ORDER BY c.id")
+    List<Car> findByNormalizedPlateWithOwner(String normalizedPlate);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c FROM Car c JOIN FETCH c.owner ORDER BY c.id")
+    Stream<Car> streamAllWithOwner();
 }
\ No newline at end of file
@@ -1,16 +1,35 @@
 package com.example.vehicleinspection.repository;
 
+import com.example.vehicleinspection.dto.InspectionBookingView;
 import com.example.vehicleinspection.model.InspectionBooking;
 import com.example.vehicleinspection.model.InspectionOfficer;
 import com.example.vehicleinspection.model.VehicleOwner;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface InspectionBookingRepository extends JpaRepository<InspectionBooking, Long> {
+public interface InspectionBookingRepository extends BaseRepository<InspectionBooking, Long> {
+
+    String BOOKING_VIEW_SELECT =
+            "SELECT b.id AS id, b.scheduledDateTime AS scheduledDateTime, b.completedDateTime AS completedDateTime, " +
+            "b.status AS status, b.inspectionType AS inspectionType, b.notes AS notes, b.result AS result, " +
+            "b.recommendations AS recommendations, o.id AS vehicleOwnerId, o.firstName AS ownerFirstName, " +
+            "o.lastName AS ownerLastName, c.id AS carId, c.licensePlate AS carLicensePlate, " +
+            "i.id AS inspectionOfficerId, i.firstName AS officerFirstName, i.lastName AS officerLastName, " +
+            "i.badgeNumber AS officerBadgeNumber " +
+            "FROM InspectionBooking b JOIN b.vehicleOwner o JOIN b.car c LEFT JOIN b.inspectionOfficer i ";
+
     List<InspectionBooking> findByVehicleOwner(VehicleOwner vehicleOwner);
     List<InspectionBooking> findByInspectionOfficer(InspectionOfficer officer);
     List<InspectionBooking> findByStatus(InspectionBooking.InspectionStatus status);
@@ -21,4 +40,104 @@ public interface InspectionBookingRepository extends JpaRepository<InspectionBoo
         VehicleOwner owner, InspectionBooking.InspectionStatus status);
     long countByStatusAndScheduledDateTimeBetween(
         InspectionBooking.InspectionStatus status, LocalDateTime start, LocalDateTime end);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE o.id = ?1")
+    List<InspectionBookingView> findViewsByVehicleOwnerId(Long ownerId);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE i.id = ?1")
+    List<InspectionBookingView> findViewsByInspectionOfficerId(Long officerId);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE b.status = ?1")
+    List<InspectionBookingView> findViewsByStatus(InspectionBooking.InspectionStatus status);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(BOOKING_VIEW_SELECT + "ORDER BY b.id")
+    Stream<InspectionBookingView> streamAllViews();
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE b.status = ?1 ORDER BY b.id")
+    List<InspectionBookingView> findViewsByStatusOrderById(InspectionBooking.InspectionStatus status, Pageable pageable);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE b.status = ?1 AND b.id > ?2 ORDER BY b.id")
+    List<InspectionBookingView> findViewsByStatusAfterId(
+        InspectionBooking.InspectionStatus status, Long afterId, Pageable pageable);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE b.scheduledDateTime BETWEEN ?1 AND ?2")
+    List<InspectionBookingView> findViewsByScheduledDateTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE b.scheduledDateTime BETWEEN ?1 AND ?2 ORDER BY b.scheduledDateTime, b.id")
+    List<InspectionBookingView> findViewsByScheduledDateTimeBetweenOrderByScheduledDateTime(
+        LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE b.scheduledDateTime BETWEEN ?1 AND ?2 " +
+           "AND (b.scheduledDateTime > ?3 OR (b.scheduledDateTime = ?3 AND b.id > ?4)) " +
+           "ORDER BY b.scheduledDateTime, b.id")
+    List<InspectionBookingView> findViewsByScheduledDateTimeBetweenAfter(
+        LocalDateTime start, LocalDateTime end, LocalDateTime afterDateTime, Long afterId, Pageable pageable);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE i.id = ?1 AND b.scheduledDateTime BETWEEN ?2 AND ?3")
+    List<InspectionBookingView> findViewsByInspectionOfficerIdAndScheduledDateTimeBetween(
+        Long officerId, LocalDateTime start, LocalDateTime end);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE o.id = ?1 AND b.status = ?2")
+    List<InspectionBookingView> findViewsByVehicleOwnerIdAndStatus(
+        Long ownerId, InspectionBooking.InspectionStatus status);
+
+    @Query("SELECT b.id, b.inspectionOfficer.id, b.scheduledDateTime FROM InspectionBooking b " +
+           "WHERE b.inspectionOfficer IS NOT NULL AND b.status <> ?2 AND b.scheduledDateTime >= ?1")
+    List<Object[]> findSlotPlacementsFrom(LocalDateTime from, InspectionBooking.InspectionStatus excludedStatus);
+
+    @Query("SELECT b.id, b.inspectionOfficer.id, b.scheduledDateTime FROM InspectionBooking b " +
+           "WHERE b.inspectionOfficer.id IN ?1 AND b.status <> ?3 AND b.scheduledDateTime >= ?2")
+    List<Object[]> findSlotPlacementsByOfficerIdInFrom(Collection<Long> officerIds, LocalDateTime from,
+                                                       InspectionBooking.InspectionStatus excludedStatus);
+
+    @Query("SELECT b.id, b.scheduledDateTime, b.inspectionType, b.status FROM InspectionBooking b " +
+           "WHERE b.inspectionOfficer.id = ?1 AND b.status IN ?2 AND b.scheduledDateTime >= ?3 " +
+           "ORDER BY b.scheduledDateTime, b.id")
+    List<Object[]> findOfficerSlotsFrom(Long officerId, Collection<InspectionBooking.InspectionStatus> statuses,
+                                        LocalDateTime from);
+
+    @Query("SELECT b.id, b.scheduledDateTime, b.inspectionType FROM InspectionBooking b " +
+           "WHERE b.inspectionOfficer IS NULL AND b.status = ?1 AND b.scheduledDateTime BETWEEN ?2 AND ?3 " +
+           "ORDER BY b.scheduledDateTime")
+    List<Object[]> findUnassignedSlots(InspectionBooking.InspectionStatus status, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT b.inspectionOfficer.id, COUNT(b) FROM InspectionBooking b " +
+           "WHERE b.inspectionOfficer IS NOT NULL AND b.status <> ?1 AND b.scheduledDateTime BETWEEN ?2 AND ?3 " +
+           "GROUP BY b.inspectionOfficer.id")
+    List<Object[]> countPerOfficerBetween(InspectionBooking.InspectionStatus excludedStatus, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT b.id, COALESCE(b.completedDateTime, b.scheduledDateTime), b.status, b.inspectionType, b.result " +
+           "FROM InspectionBooking b WHERE b.car.id = ?1")
+    List<Object[]> findTimelineRowsByCarId(Long carId);
+
+    @Query("SELECT b.id, o.id FROM InspectionBooking b JOIN b.inspectionOfficer o WHERE b.id IN ?1")
+    List<Object[]> findOfficerIdsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT b.id FROM InspectionBooking b WHERE b.vehicleOwner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    @Query("SELECT b.id, c.id, c.licensePlate, b.scheduledDateTime, b.status, b.inspectionType " +
+           "FROM InspectionBooking b JOIN b.car c " +
+           "WHERE b.vehicleOwner.id = ?1 AND b.scheduledDateTime >= ?2 AND b.status IN ?3 " +
+           "ORDER BY b.scheduledDateTime, b.id")
+    List<Object[]> findUpcomingRowsByOwnerId(Long ownerId, LocalDateTime from,
+                                             Collection<InspectionBooking.InspectionStatus> statuses, Pageable pageable);
+
+    @Query("SELECT b.inspectionOfficer.id, b.status, CAST(b.scheduledDateTime AS LocalDate), COUNT(b) " +
+           "FROM InspectionBooking b WHERE b.inspectionOfficer IS NOT NULL " +
+           "GROUP BY b.inspectionOfficer.id, b.status, CAST(b.scheduledDateTime AS LocalDate)")
+    List<Object[]> countPerOfficerStatusAndDay();
+
+    // Skips bookings that were given an officer since they were read
+    @Modifying
+    @Query("UPDATE InspectionBooking b SET b.inspectionOfficer = ?1 WHERE b.id IN ?2 AND b.inspectionOfficer IS NULL")
+    int assignOfficer(InspectionOfficer officer, List<Long> bookingIds);
+
+    // Skips bookings that left the officer or a movable status since they were read
+    @Modifying
+    @Query("UPDATE InspectionBooking b SET b.inspectionOfficer = ?1 WHERE b.id IN ?2 " +
+           "AND b.inspectionOfficer.id = ?3 AND b.status IN ?4")
+    int reassignOfficer(InspectionOfficer officer, List<Long> bookingIds, Long fromOfficerId,
+                        Collection<InspectionBooking.InspectionStatus> statuses);
 }
\ No newline at end of file
@@ -1,17 +1,41 @@
 package com.example.vehicleinspection.repository;
 
 import com.example.vehicleinspection.model.InspectionOfficer;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InspectionOfficerRepository extends JpaRepository<InspectionOfficer, Long> {
+public interface InspectionOfficerRepository extends BaseRepository<InspectionOfficer, Long> {
     Optional<InspectionOfficer> findByBadgeNumber(String badgeNumber);
     List<InspectionOfficer> findByDepartment(String department);
     List<InspectionOfficer> findByIsAvailable(boolean isAvailable);
     List<InspectionOfficer> findBySpecialization(String specialization);
+    List<InspectionOfficer> findByDepartmentAndSpecialization(String department, String specialization);
+    List<InspectionOfficer> findBySpecializationAndIsAvailable(String specialization, boolean isAvailable);
     List<InspectionOfficer> findByYearsOfExperienceGreaterThanEqual(int years);
+
+    @Query("SELECT o.id FROM InspectionOfficer o")
+    List<Long> findAllIds();
+
+    @Query("SELECT DISTINCT o FROM InspectionOfficer o LEFT JOIN FETCH o.inspectionMethods WHERE o.isAvailable = true")
+    List<InspectionOfficer> findAvailableWithInspectionMethods();
+
+    @Query("SELECT DISTINCT o FROM InspectionOfficer o LEFT JOIN FETCH o.inspectionMethods WHERE o.id IN ?1")
+    List<InspectionOfficer> findAllWithInspectionMethodsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT o.id, o.department, o.specialization, o.yearsOfExperience, o.isAvailable FROM InspectionOfficer o")
+    List<Object[]> findAllSearchRows();
+
+    @Query("SELECT o.id, m FROM InspectionOfficer o JOIN o.inspectionMethods m")
+    List<Object[]> findAllInspectionMethodRows();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM InspectionOfficer o WHERE o.id IN ?1 ORDER BY o.id")
+    List<InspectionOfficer> lockAllByIdIn(Collection<Long> ids);
 }
\ No newline at end of file
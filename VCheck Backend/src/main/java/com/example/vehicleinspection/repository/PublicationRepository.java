@@ -2,14 +2,15 @@ package com.example.vehicleinspection.repository;
 
 import com.example.vehicleinspection.model.Publication;
 import com.example.vehicleinspection.model.VehicleOwner;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PublicationRepository extends JpaRepository<Publication, Long> {
+public interface PublicationRepository extends BaseRepository<Publication, Long> {
     List<Publication> findByVehicleOwner(VehicleOwner vehicleOwner);
     List<Publication> findByType(Publication.NotificationType type);
     List<Publication> findByIsReadFalse();
@@ -19,4 +20,14 @@ public interface PublicationRepository extends JpaRepository<Publication, Long>
     List<Publication> findByTypeAndScheduledForBetween(
         Publication.NotificationType type, LocalDateTime start, LocalDateTime end);
     long countByVehicleOwnerAndIsReadFalse(VehicleOwner vehicleOwner);
+
+    @Query("SELECT p.id, COALESCE(p.sentAt, p.scheduledFor, p.createdAt), p.type, p.title, p.status " +
+           "FROM Publication p WHERE p.carId = ?1")
+    List<Object[]> findTimelineRowsByCarId(Long carId);
+
+    @Query("SELECT COUNT(p) FROM Publication p WHERE p.vehicleOwner.id = ?1 AND p.isRead = false")
+    long countUnreadByOwnerId(Long ownerId);
+
+    @Query("SELECT p.reminderKey FROM Publication p WHERE p.reminderKey IN ?1")
+    List<String> findExistingReminderKeys(Collection<String> reminderKeys);
 }
\ No newline at end of file
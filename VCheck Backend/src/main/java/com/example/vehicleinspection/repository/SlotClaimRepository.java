@@ -0,0 +1,27 @@
+package com.example.vehicleinspection.repository;
+
+import com.example.vehicleinspection.model.SlotClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SlotClaimRepository extends JpaRepository<SlotClaim, Long> {
+    @Modifying
+    @Query("DELETE FROM SlotClaim c WHERE c.bookingId = ?1")
+    int deleteByBookingId(Long bookingId);
+
+    @Modifying
+    @Query("DELETE FROM SlotClaim c WHERE c.bookingId IN ?1")
+    int deleteByBookingIdIn(Collection<Long> bookingIds);
+
+    // Rows that may collide with new claims for these bookings, officers and slots; callers match the pairs
+    @Query("SELECT c FROM SlotClaim c WHERE c.bookingId IN ?1 OR (c.officerId IN ?2 AND c.slotStart IN ?3)")
+    List<SlotClaim> findCollisionCandidates(Collection<Long> bookingIds, Collection<Long> officerIds,
+                                            Collection<LocalDateTime> slotStarts);
+}
@@ -0,0 +1,9 @@
+package com.example.vehicleinspection.repository;
+
+import com.example.vehicleinspection.model.SweepCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SweepCheckpointRepository extends JpaRepository<SweepCheckpoint, String> {
+}
@@ -1,14 +1,71 @@
 package com.example.vehicleinspection.repository;
 
 import com.example.vehicleinspection.model.VehicleOwner;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface VehicleOwnerRepository extends JpaRepository<VehicleOwner, Long> {
+public interface VehicleOwnerRepository extends BaseRepository<VehicleOwner, Long> {
     Optional<VehicleOwner> findByDriverLicense(String driverLicense);
     boolean existsByDriverLicense(String driverLicense);
+    List<VehicleOwner> findByDriverLicenseIn(Collection<String> driverLicenses);
     Optional<VehicleOwner> findByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("SELECT o.driverLicense FROM VehicleOwner o")
+    List<String> findAllDriverLicenses();
+
+    // Owners with a car due for inspection on or before the date; the semi-join stops at the first such car
+    @Query("SELECT o FROM VehicleOwner o WHERE o.id > ?2 AND EXISTS (SELECT c.id FROM Car c WHERE c.owner = o " +
+           "AND (c.nextInspectionDueDate IS NULL OR c.nextInspectionDueDate <= ?1)) ORDER BY o.id")
+    List<VehicleOwner> findWithInspectionDueAfter(LocalDate dueBy, Long afterId, Pageable pageable);
+
+    // Owners with a car whose insurance ran out on or before the date
+    @Query("SELECT o FROM VehicleOwner o WHERE o.id > ?2 AND EXISTS (SELECT c.id FROM Car c WHERE c.owner = o " +
+           "AND c.insuranceExpiryDate <= ?1) ORDER BY o.id")
+    List<VehicleOwner> findWithInsuranceExpiredAfter(LocalDate expiredBy, Long afterId, Pageable pageable);
+
+    @Query("SELECT o.id, o.vehicleCount, o.pendingInspectionCount, o.latestInspectionDate, o.countersDate " +
+           "FROM VehicleOwner o WHERE o.id IN ?1")
+    List<Object[]> findCountersByIds(Collection<Long> ids);
+
+    @Query("SELECT o.vehicleCount FROM VehicleOwner o WHERE o.id = ?1 AND o.countersDate IS NOT NULL")
+    Optional<Long> findVehicleCount(Long ownerId);
+
+    @Query("SELECT o.pendingInspectionCount FROM VehicleOwner o WHERE o.id = ?1 AND o.countersDate = ?2")
+    Optional<Long> findPendingInspectionCount(Long ownerId, LocalDate countersDate);
+
+    @Query("SELECT MAX(o.id) FROM VehicleOwner o")
+    Optional<Long> findMaxId();
+
+    @Modifying
+    @Query("UPDATE VehicleOwner o SET o.vehicleCount = o.vehicleCount + ?2, " +
+           "o.pendingInspectionCount = o.pendingInspectionCount + ?3 WHERE o.id = ?1")
+    int adjustCounters(Long ownerId, long vehicles, long pendingInspections);
+
+    @Modifying
+    @Query("UPDATE VehicleOwner o SET o.latestInspectionDate = ?2 WHERE o.id = ?1 " +
+           "AND (o.latestInspectionDate IS NULL OR o.latestInspectionDate < ?2)")
+    int raiseLatestInspectionDate(Long ownerId, LocalDate inspectionDate);
+
+    @Modifying
+    @Query("UPDATE VehicleOwner o SET o.latestInspectionDate = " +
+           "(SELECT MAX(c.lastInspectionDate) FROM Car c WHERE c.owner = o) WHERE o.id = ?1")
+    int recomputeLatestInspectionDate(Long ownerId);
+
+    // Recomputes every counter of the owners in (afterId, upToId] from their cars
+    @Modifying
+    @Query("UPDATE VehicleOwner o SET " +
+           "o.vehicleCount = (SELECT COUNT(c) FROM Car c WHERE c.owner = o), " +
+           "o.pendingInspectionCount = (SELECT COUNT(c) FROM Car c WHERE c.owner = o " +
+           "AND (c.nextInspectionDueDate IS NULL OR c.nextInspectionDueDate <= ?3)), " +
+           "o.latestInspectionDate = (SELECT MAX(c.lastInspectionDate) FROM Car c WHERE c.owner = o), " +
+           "o.countersDate = ?3 WHERE o.id > ?1 AND o.id <= ?2")
+    int reconcileCounters(Long afterId, Long upToId, LocalDate today);
+}
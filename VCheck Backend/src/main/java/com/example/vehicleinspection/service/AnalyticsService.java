@@ -4,6 +4,7 @@ import com.example.vehicleinspection.model.Analytics;
 import com.example.vehicleinspection.dto.AnalyticsDTO;
 import com.example.vehicleinspection.model.InspectionBooking;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +22,7 @@ public interface AnalyticsService extends BaseService<Analytics, Long> {
     List<AnalyticsDTO> findByPassedStatus(boolean passed);
     List<AnalyticsDTO> findByInspectionType(String type);
     List<AnalyticsDTO> findByInspectionBooking(Long bookingId);
+    long exportAnalytics(OutputStream out);
 
     // Statistical operations
     double getAverageInspectionDuration(LocalDateTime start, LocalDateTime end);
@@ -1,5 +1,6 @@
 package com.example.vehicleinspection.service;
 
+import com.example.vehicleinspection.dto.CursorPageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -13,6 +14,7 @@ public interface BaseService<T, ID> {
     boolean existsById(ID id);
     List<T> findAll();
     Page<T> findAll(Pageable pageable);
+    CursorPageDTO<T> findAll(String cursor, int size);
     long count();
     void deleteById(ID id);
     void delete(T entity);
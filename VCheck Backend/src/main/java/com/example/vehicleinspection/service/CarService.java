@@ -2,7 +2,16 @@ package com.example.vehicleinspection.service;
 
 import com.example.vehicleinspection.model.Car;
 import com.example.vehicleinspection.dto.CarDTO;
+import com.example.vehicleinspection.dto.CarFacetsDTO;
+import com.example.vehicleinspection.dto.CarSearchCriteria;
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.ImportReportDTO;
+import com.example.vehicleinspection.dto.PlateCandidateDTO;
+import com.example.vehicleinspection.dto.PlateVerificationDTO;
+import com.example.vehicleinspection.dto.TimelineEntryDTO;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -13,12 +22,26 @@ public interface CarService extends BaseService<Car, Long> {
     
     CarDTO updateCar(Long id, CarDTO carDTO);
     
+    ImportReportDTO importFleetCsv(InputStream csv);
+    
+    ImportReportDTO importFleetJsonLines(InputStream jsonLines);
+    
     Optional<CarDTO> findByLicensePlate(String licensePlate);
     
+    PlateVerificationDTO verifyPlate(String plate);
+    
+    List<PlateCandidateDTO> findPlateCandidates(String plate, int maxDistance, int limit);
+    
+    CursorPageDTO<TimelineEntryDTO> getTimeline(String plate, String cursor, int size);
+    
     List<CarDTO> findByOwner(Long ownerId);
     
     List<CarDTO> findAllCars();
     
+    CursorPageDTO<CarDTO> findAllCars(String cursor, int size);
+    
+    long exportCars(OutputStream out);
+    
     void deleteCar(Long id);
     
     boolean existsByLicensePlate(String licensePlate);
@@ -27,6 +50,10 @@ public interface CarService extends BaseService<Car, Long> {
     
     List<CarDTO> findCarsWithExpiredInsurance();
     
+    List<CarDTO> findCarsDueForInspectionWithin(int days);
+    
+    List<CarDTO> findCarsWithInsuranceExpiringWithin(int days);
+    
     CarDTO updateInspectionStatus(Long id, String status, LocalDate inspectionDate);
     
     CarDTO updateInsurance(Long id, String provider, String policyNumber, LocalDate expiryDate);
@@ -38,4 +65,8 @@ public interface CarService extends BaseService<Car, Long> {
     List<CarDTO> findCarsByMakeAndModel(String make, String model);
     
     List<CarDTO> findCarsByYear(Integer year);
+    
+    CursorPageDTO<CarDTO> searchCars(CarSearchCriteria criteria, String cursor, int size);
+    
+    CarFacetsDTO countCarFacets(CarSearchCriteria criteria);
 }
\ No newline at end of file
@@ -1,8 +1,16 @@
 package com.example.vehicleinspection.service;
 
 import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.dto.AssignmentReportDTO;
+import com.example.vehicleinspection.dto.AvailabilityGridDTO;
+import com.example.vehicleinspection.dto.AvailableSlotDTO;
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.ImportReportDTO;
 import com.example.vehicleinspection.dto.InspectionBookingDTO;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -10,10 +18,16 @@ public interface InspectionBookingService extends BaseService<InspectionBooking,
     
     InspectionBookingDTO createBooking(InspectionBookingDTO bookingDTO);
     
+    ImportReportDTO importBookings(InputStream bookingsJson);
+    
+    long exportBookings(OutputStream out);
+    
     InspectionBookingDTO updateBooking(Long id, InspectionBookingDTO bookingDTO);
     
     InspectionBookingDTO assignOfficer(Long bookingId, Long officerId);
     
+    AssignmentReportDTO autoAssignOfficers(LocalDateTime start, LocalDateTime end);
+    
     InspectionBookingDTO updateStatus(Long id, InspectionBooking.InspectionStatus status);
     
     List<InspectionBookingDTO> findByVehicleOwner(Long ownerId);
@@ -22,8 +36,12 @@ public interface InspectionBookingService extends BaseService<InspectionBooking,
     
     List<InspectionBookingDTO> findByStatus(InspectionBooking.InspectionStatus status);
     
+    CursorPageDTO<InspectionBookingDTO> findByStatus(InspectionBooking.InspectionStatus status, String cursor, int size);
+    
     List<InspectionBookingDTO> findByDateRange(LocalDateTime start, LocalDateTime end);
     
+    CursorPageDTO<InspectionBookingDTO> findByDateRange(LocalDateTime start, LocalDateTime end, String cursor, int size);
+    
     List<InspectionBookingDTO> findByOfficerAndDateRange(Long officerId, LocalDateTime start, LocalDateTime end);
     
     List<InspectionBookingDTO> findByOwnerAndStatus(Long ownerId, InspectionBooking.InspectionStatus status);
@@ -38,6 +56,10 @@ public interface InspectionBookingService extends BaseService<InspectionBooking,
     
     List<LocalDateTime> getAvailableTimeSlots(Long officerId, LocalDateTime date);
     
+    AvailabilityGridDTO getAvailabilityGrid(String department, String specialization, LocalDate startDate, LocalDate endDate);
+    
+    List<AvailableSlotDTO> findNextAvailableSlots(String specialization, LocalDateTime after, int limit);
+    
     long getCompletedInspectionsCount(LocalDateTime start, LocalDateTime end);
     
     double getAverageInspectionDuration();
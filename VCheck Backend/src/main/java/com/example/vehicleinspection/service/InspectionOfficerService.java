@@ -1,7 +1,11 @@
 package com.example.vehicleinspection.service;
 
 import com.example.vehicleinspection.model.InspectionOfficer;
+import com.example.vehicleinspection.dto.AssignmentReportDTO;
+import com.example.vehicleinspection.dto.CursorPageDTO;
 import com.example.vehicleinspection.dto.InspectionOfficerDTO;
+import com.example.vehicleinspection.dto.OfficerRatingDTO;
+import com.example.vehicleinspection.dto.OfficerSearchCriteria;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +23,8 @@ public interface InspectionOfficerService extends BaseService<InspectionOfficer,
     
     List<InspectionOfficerDTO> findAllOfficers();
     
+    CursorPageDTO<InspectionOfficerDTO> findAllOfficers(String cursor, int size);
+    
     void deleteOfficer(Long id);
     
     List<InspectionOfficerDTO> findAvailableOfficers();
@@ -29,15 +35,21 @@ public interface InspectionOfficerService extends BaseService<InspectionOfficer,
     
     InspectionOfficerDTO updateAvailability(Long id, boolean isAvailable);
     
+    AssignmentReportDTO reassignBookings(Long officerId);
+    
     InspectionOfficerDTO addInspectionMethod(Long id, String method);
     
     InspectionOfficerDTO removeInspectionMethod(Long id, String method);
     
+    List<InspectionOfficerDTO> searchOfficers(OfficerSearchCriteria criteria);
+    
     List<InspectionOfficerDTO> findOfficersAvailableForTimeSlot(LocalDateTime startTime, LocalDateTime endTime);
     
     int getCompletedInspectionsCount(Long officerId);
     
     double getAverageInspectionRating(Long officerId);
     
+    OfficerRatingDTO getRating(Long officerId);
+    
     List<String> getOfficerCertifications(Long officerId);
 }
\ No newline at end of file
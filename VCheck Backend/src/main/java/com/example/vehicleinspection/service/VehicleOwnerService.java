@@ -1,6 +1,8 @@
 package com.example.vehicleinspection.service;
 
 import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.OwnerDashboardDTO;
 import com.example.vehicleinspection.dto.VehicleOwnerDTO;
 
 import java.util.List;
@@ -18,14 +20,20 @@ public interface VehicleOwnerService extends BaseService<VehicleOwner, Long> {
     
     List<VehicleOwnerDTO> findAllVehicleOwners();
     
+    CursorPageDTO<VehicleOwnerDTO> findAllVehicleOwners(String cursor, int size);
+    
     void deleteVehicleOwner(Long id);
     
     boolean existsByDriverLicense(String driverLicense);
     
     List<VehicleOwnerDTO> findOwnersWithPendingInspections();
     
+    CursorPageDTO<VehicleOwnerDTO> findOwnersWithPendingInspections(String cursor, int size);
+    
     List<VehicleOwnerDTO> findOwnersWithExpiredInsurance();
     
+    CursorPageDTO<VehicleOwnerDTO> findOwnersWithExpiredInsurance(String cursor, int size);
+    
     VehicleOwnerDTO addVehicleToOwner(Long ownerId, Long vehicleId);
     
     VehicleOwnerDTO removeVehicleFromOwner(Long ownerId, Long vehicleId);
@@ -33,4 +41,8 @@ public interface VehicleOwnerService extends BaseService<VehicleOwner, Long> {
     int getVehicleCount(Long ownerId);
     
     int getPendingInspectionsCount(Long ownerId);
+    
+    OwnerDashboardDTO getDashboard(Long ownerId);
+    
+    String getDashboardETag(Long ownerId);
 }
\ No newline at end of file
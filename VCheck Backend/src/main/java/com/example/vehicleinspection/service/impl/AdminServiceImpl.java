@@ -18,10 +18,12 @@ import java.util.stream.Collectors;
 public class AdminServiceImpl extends BaseServiceImpl<Admin, Long> implements AdminService {
 
     private final AdminRepository adminRepository;
+    private final UniquenessGuard uniquenessGuard;
 
-    public AdminServiceImpl(AdminRepository adminRepository) {
-        super(adminRepository);
+    public AdminServiceImpl(AdminRepository adminRepository, UniquenessGuard uniquenessGuard) {
+        super(adminRepository, Admin::getId, Long::valueOf);
         this.adminRepository = adminRepository;
+        this.uniquenessGuard = uniquenessGuard;
     }
 
     @Override
@@ -132,12 +134,14 @@ public class AdminServiceImpl extends BaseServiceImpl<Admin, Long> implements Ad
 
     @Override
     public boolean existsByUsername(String username) {
-        return adminRepository.existsByUsername(username);
+        return uniquenessGuard.mightExist(UniquenessGuard.Key.ADMIN_USERNAME, username)
+                && adminRepository.existsByUsername(username);
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        return adminRepository.existsByEmail(email);
+        return uniquenessGuard.mightExist(UniquenessGuard.Key.ADMIN_EMAIL, email)
+                && adminRepository.existsByEmail(email);
     }
 
     @Override
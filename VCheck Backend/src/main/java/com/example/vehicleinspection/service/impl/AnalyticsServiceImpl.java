@@ -10,6 +10,7 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.*;
@@ -21,12 +22,18 @@ public class AnalyticsServiceImpl extends BaseServiceImpl<Analytics, Long> imple
 
     private final AnalyticsRepository analyticsRepository;
     private final InspectionBookingRepository bookingRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final OfficerRatings officerRatings;
 
     public AnalyticsServiceImpl(AnalyticsRepository analyticsRepository,
-                               InspectionBookingRepository bookingRepository) {
-        super(analyticsRepository);
+                               InspectionBookingRepository bookingRepository,
+                               NdjsonExporter ndjsonExporter,
+                               OfficerRatings officerRatings) {
+        super(analyticsRepository, Analytics::getId, Long::valueOf);
         this.analyticsRepository = analyticsRepository;
         this.bookingRepository = bookingRepository;
+        this.ndjsonExporter = ndjsonExporter;
+        this.officerRatings = officerRatings;
     }
 
     @Override
@@ -117,7 +124,7 @@ public class AnalyticsServiceImpl extends BaseServiceImpl<Analytics, Long> imple
 
     @Override
     public double getAverageInspectionScore(Long officerId) {
-        return analyticsRepository.calculateAverageInspectionScore(officerId);
+        return officerRatings.average(officerId);
     }
 
     @Override
@@ -309,6 +316,25 @@ public class AnalyticsServiceImpl extends BaseServiceImpl<Analytics, Long> imple
                 .orElse(0.0);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAnalytics(OutputStream out) {
+        return ndjsonExporter.export(analyticsRepository.streamAll(), this::convertToExportDTO, out);
+    }
+
+    /**
+     * Stored values only. The per-day rates of {@link #convertToDTO} cost three queries per row, which a
+     * full dump cannot afford; they can be recomputed from the exported rows.
+     */
+    private AnalyticsDTO convertToExportDTO(Analytics analytics) {
+        AnalyticsDTO dto = new AnalyticsDTO();
+        BeanUtils.copyProperties(analytics, dto);
+        if (analytics.getInspection() != null) {
+            dto.setInspectionId(analytics.getInspection().getId());
+        }
+        return dto;
+    }
+
     private AnalyticsDTO convertToDTO(Analytics analytics) {
         AnalyticsDTO dto = new AnalyticsDTO();
         BeanUtils.copyProperties(analytics, dto);
@@ -1,19 +1,25 @@
 package com.example.vehicleinspection.service.impl;
 
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.repository.BaseRepository;
 import com.example.vehicleinspection.service.BaseService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 public abstract class BaseServiceImpl<T, ID> implements BaseService<T, ID> {
 
-    protected final JpaRepository<T, ID> repository;
+    protected final BaseRepository<T, ID> repository;
+    private final Function<T, ID> idGetter;
+    private final Function<String, ID> idParser;
 
-    protected BaseServiceImpl(JpaRepository<T, ID> repository) {
+    protected BaseServiceImpl(BaseRepository<T, ID> repository, Function<T, ID> idGetter, Function<String, ID> idParser) {
         this.repository = repository;
+        this.idGetter = idGetter;
+        this.idParser = idParser;
     }
 
     @Override
@@ -46,6 +52,20 @@ public abstract class BaseServiceImpl<T, ID> implements BaseService<T, ID> {
         return repository.findAll(pageable);
     }
 
+    @Override
+    public CursorPageDTO<T> findAll(String cursor, int size) {
+        return findAll(cursor, size, Function.identity());
+    }
+
+    protected <D> CursorPageDTO<D> findAll(String cursor, int size, Function<T, D> mapper) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<T> rows = cursor == null
+                ? repository.findAllByOrderByIdAsc(KeysetCursor.probe(pageSize))
+                : repository.findByIdGreaterThanOrderByIdAsc(KeysetCursor.decodeId(cursor, idParser),
+                        KeysetCursor.probe(pageSize));
+        return KeysetCursor.page(rows, pageSize, row -> KeysetCursor.encode(idGetter.apply(row)), mapper);
+    }
+
     @Override
     public long count() {
         return repository.count();
@@ -0,0 +1,252 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.AssignmentReportDTO;
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.InspectionOfficer;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.InspectionOfficerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns officers to many bookings in one pass. Bookings are taken in time order and each goes to the
+ * free officer that matches its inspection type best, preferring the least loaded and then the most
+ * experienced officer. Slots are claimed in memory as the pass goes, and the claim rows and officer
+ * columns are written in batches at the end. The same pass moves the future bookings of an officer who becomes
+ * unavailable.
+ */
+@Component
+@Transactional
+public class BookingAssignmentEngine {
+
+    private static final int UPDATE_CHUNK_SIZE = 500;
+
+    // Match rank of an officer who neither shares the specialization nor knows the inspection method
+    private static final int NO_MATCH = 2;
+
+    // Bookings still ahead of their officer; in-progress ones stay with whoever started them
+    private static final Set<InspectionBooking.InspectionStatus> MOVABLE_STATUSES = EnumSet.of(
+            InspectionBooking.InspectionStatus.SCHEDULED,
+            InspectionBooking.InspectionStatus.RESCHEDULED);
+
+    private static final Logger log = LoggerFactory.getLogger(BookingAssignmentEngine.class);
+
+    private final InspectionBookingRepository bookingRepository;
+    private final InspectionOfficerRepository officerRepository;
+    private final SlotCalendarIndex slotCalendarIndex;
+    private final SlotReservations slotReservations;
+    private final OfficerStats officerStats;
+
+    public BookingAssignmentEngine(InspectionBookingRepository bookingRepository,
+                                   InspectionOfficerRepository officerRepository,
+                                   SlotCalendarIndex slotCalendarIndex,
+                                   SlotReservations slotReservations,
+                                   OfficerStats officerStats) {
+        this.bookingRepository = bookingRepository;
+        this.officerRepository = officerRepository;
+        this.slotCalendarIndex = slotCalendarIndex;
+        this.slotReservations = slotReservations;
+        this.officerStats = officerStats;
+    }
+
+    public AssignmentReportDTO assignUnassigned(LocalDateTime start, LocalDateTime end) {
+        List<PendingBooking> bookings = bookingRepository
+                .findUnassignedSlots(InspectionBooking.InspectionStatus.SCHEDULED, start, end).stream()
+                .map(row -> new PendingBooking((Long) row[0], (LocalDateTime) row[1], (String) row[2],
+                        null, InspectionBooking.InspectionStatus.SCHEDULED))
+                .collect(Collectors.toList());
+        if (bookings.isEmpty()) {
+            return new AssignmentReportDTO();
+        }
+        return assign(bookings, officerRepository.findAvailableWithInspectionMethods(), loadBetween(start, end),
+                bookingRepository::assignOfficer);
+    }
+
+    /**
+     * Moves the officer's bookings from now on to other available officers who share the specialization or
+     * know the inspection method. The bookings come from one query, candidates are checked against the
+     * in-memory slot calendar, and the claims and officer columns are rewritten in batches within the
+     * caller's transaction. Bookings nobody can take stay with the officer and are listed as unassigned.
+     */
+    public AssignmentReportDTO reassignFrom(Long officerId) {
+        List<PendingBooking> bookings = bookingRepository
+                .findOfficerSlotsFrom(officerId, MOVABLE_STATUSES, LocalDateTime.now()).stream()
+                .map(row -> new PendingBooking((Long) row[0], (LocalDateTime) row[1], (String) row[2],
+                        officerId, (InspectionBooking.InspectionStatus) row[3]))
+                .collect(Collectors.toList());
+        if (bookings.isEmpty()) {
+            return new AssignmentReportDTO();
+        }
+
+        List<InspectionOfficer> officers = officerRepository.findAvailableWithInspectionMethods().stream()
+                .filter(officer -> !officer.getId().equals(officerId))
+                .collect(Collectors.toList());
+        Map<Long, Integer> load = loadBetween(bookings.get(0).scheduledDateTime(),
+                bookings.get(bookings.size() - 1).scheduledDateTime());
+
+        // The officer is locked with the candidates, so the bookings left with them can be claimed back
+        List<Long> lockedIds = officers.stream().map(InspectionOfficer::getId).collect(Collectors.toList());
+        lockedIds.add(officerId);
+        slotReservations.lockOfficers(lockedIds);
+
+        // The claim rows go first, so the new ones can be inserted in batches; placements move as they are claimed
+        List<Long> bookingIds = bookings.stream().map(PendingBooking::id).collect(Collectors.toList());
+        for (int from = 0; from < bookingIds.size(); from += UPDATE_CHUNK_SIZE) {
+            slotReservations.deleteClaims(bookingIds.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, bookingIds.size())));
+        }
+        AssignmentReportDTO report = assign(bookings, officers, load,
+                (officer, chunk) -> bookingRepository.reassignOfficer(officer, chunk, officerId, MOVABLE_STATUSES));
+
+        if (!report.getUnassignedBookingIds().isEmpty()) {
+            log.warn("{} of {} future bookings of officer {} could not be reassigned: {}",
+                    report.getUnassignedBookingIds().size(), report.getTotalBookings(), officerId,
+                    report.getUnassignedBookingIds());
+        }
+        return report;
+    }
+
+    Map<Long, Integer> loadBetween(LocalDateTime start, LocalDateTime end) {
+        Map<Long, Integer> load = new HashMap<>();
+        for (Object[] row : bookingRepository.countPerOfficerBetween(InspectionBooking.InspectionStatus.CANCELLED, start, end)) {
+            load.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        return load;
+    }
+
+    /**
+     * Places each booking on the best free officer from {@code officers} that shares the specialization or
+     * knows the inspection method. {@code load} holds the current number of bookings per officer and is
+     * updated as bookings are placed. The bookings must hold no claim rows, so the new ones are written
+     * in one checked batch after the pass; a booking nobody can take is claimed back on the officer it came
+     * from, if any. A booking whose claim collides with a row the calendar did not know about is listed as
+     * unassigned. {@code update} writes the officer column of a chunk and returns the rows it changed.
+     * Bookings it skips were changed by someone else during the pass; their claims are dropped and they
+     * are listed as unassigned.
+     */
+    AssignmentReportDTO assign(List<PendingBooking> bookings, List<InspectionOfficer> officers, Map<Long, Integer> load,
+                               BiFunction<InspectionOfficer, List<Long>, Integer> update) {
+        AssignmentReportDTO report = new AssignmentReportDTO();
+        report.setTotalBookings(bookings.size());
+        Map<Long, List<Long>> bookingsByOfficer = new HashMap<>();
+        slotReservations.lockOfficers(officers.stream().map(InspectionOfficer::getId).collect(Collectors.toList()));
+
+        for (PendingBooking booking : bookings) {
+            Comparator<InspectionOfficer> preference = preference(booking.inspectionType(), load);
+            List<InspectionOfficer> candidates = officers.stream()
+                    .filter(officer -> matchRank(officer, booking.inspectionType()) < NO_MATCH)
+                    .filter(officer -> slotCalendarIndex.isSlotFree(officer.getId(), booking.scheduledDateTime(), booking.id()))
+                    .sorted(preference)
+                    .collect(Collectors.toList());
+
+            InspectionOfficer chosen = null;
+            for (InspectionOfficer candidate : candidates) {
+                if (slotReservations.tryClaimNew(booking.id(), candidate.getId(), booking.scheduledDateTime())) {
+                    chosen = candidate;
+                    break;
+                }
+            }
+            if (chosen == null) {
+                // Still placed on its officer in the calendar, so the slot is theirs to take back
+                if (booking.officerId() != null) {
+                    slotReservations.tryClaimNew(booking.id(), booking.officerId(), booking.scheduledDateTime());
+                }
+                report.getUnassignedBookingIds().add(booking.id());
+                continue;
+            }
+            load.merge(chosen.getId(), 1, Integer::sum);
+            bookingsByOfficer.computeIfAbsent(chosen.getId(), id -> new ArrayList<>()).add(booking.id());
+            report.getAssignments().put(booking.id(), chosen.getId());
+        }
+
+        Set<Long> collided = slotReservations.flushClaims();
+        if (!collided.isEmpty()) {
+            // Put back in the calendar as the database has them
+            slotReservations.abandon(collided);
+            for (Long bookingId : collided) {
+                Long officerId = report.getAssignments().remove(bookingId);
+                if (officerId != null) {
+                    bookingsByOfficer.get(officerId).remove(bookingId);
+                    load.merge(officerId, -1, Integer::sum);
+                    report.getUnassignedBookingIds().add(bookingId);
+                }
+            }
+            log.warn("{} bookings collided with claims outside the slot calendar: {}", collided.size(), collided);
+        }
+
+        bookingsByOfficer.forEach((officerId, bookingIds) -> {
+            InspectionOfficer officer = officerRepository.getReferenceById(officerId);
+            for (int from = 0; from < bookingIds.size(); from += UPDATE_CHUNK_SIZE) {
+                List<Long> chunk = bookingIds.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, bookingIds.size()));
+                if (update.apply(officer, chunk) != chunk.size()) {
+                    dropChanged(chunk, officerId, report);
+                }
+            }
+        });
+
+        // The bulk updates bypass the entity listeners
+        for (PendingBooking booking : bookings) {
+            Long officerId = report.getAssignments().get(booking.id());
+            if (officerId != null) {
+                officerStats.bookingChanged(booking.officerId(), booking.status(), booking.scheduledDateTime(),
+                        officerId, booking.status(), booking.scheduledDateTime());
+            }
+        }
+        report.setAssignedCount(report.getAssignments().size());
+        return report;
+    }
+
+    /**
+     * Finds the bookings of a chunk that the update did not give to the officer, drops their new claims and
+     * moves them from the assignments to the unassigned list.
+     */
+    private void dropChanged(List<Long> bookingIds, Long officerId, AssignmentReportDTO report) {
+        Map<Long, Long> officerIds = new HashMap<>();
+        for (Object[] row : bookingRepository.findOfficerIdsByIdIn(bookingIds)) {
+            officerIds.put((Long) row[0], (Long) row[1]);
+        }
+        List<Long> changed = bookingIds.stream()
+                .filter(bookingId -> !officerId.equals(officerIds.get(bookingId)))
+                .collect(Collectors.toList());
+        slotReservations.abandon(changed);
+        for (Long bookingId : changed) {
+            report.getAssignments().remove(bookingId);
+            report.getUnassignedBookingIds().add(bookingId);
+        }
+        log.warn("{} bookings changed while they were being assigned to officer {}: {}", changed.size(), officerId, changed);
+    }
+
+    private Comparator<InspectionOfficer> preference(String inspectionType, Map<Long, Integer> load) {
+        return Comparator.<InspectionOfficer>comparingInt(officer -> matchRank(officer, inspectionType))
+                .thenComparingInt(officer -> load.getOrDefault(officer.getId(), 0))
+                .thenComparing(Comparator.comparingInt(InspectionOfficer::getYearsOfExperience).reversed());
+    }
+
+    private int matchRank(InspectionOfficer officer, String inspectionType) {
+        if (inspectionType == null) {
+            return 0;
+        }
+        if (inspectionType.equalsIgnoreCase(officer.getSpecialization())) {
+            return 0;
+        }
+        boolean knowsMethod = officer.getInspectionMethods().stream()
+                .anyMatch(method -> method.equalsIgnoreCase(inspectionType));
+        return knowsMethod ? 1 : NO_MATCH;
+    }
+
+    record PendingBooking(Long id, LocalDateTime scheduledDateTime, String inspectionType, Long officerId,
+                          InspectionBooking.InspectionStatus status) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.ImportReportDTO;
+import com.example.vehicleinspection.dto.InspectionBookingDTO;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.InspectionOfficer;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.InspectionOfficerRepository;
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a JSON array of bookings in chunks, one transaction per chunk. Each chunk resolves its owners,
+ * cars and officers with one query per type and checks officer slots in memory. Accepted bookings and
+ * their slot claims are then inserted in JDBC batches, using ids from pooled sequences. A chunk whose
+ * commit fails is written again row by row.
+ */
+@Component
+public class BookingImporter {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(BookingImporter.class);
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final InspectionBookingRepository bookingRepository;
+    private final VehicleOwnerRepository ownerRepository;
+    private final CarRepository carRepository;
+    private final InspectionOfficerRepository officerRepository;
+    private final SlotReservations slotReservations;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingImporter(ObjectMapper objectMapper,
+                           Validator validator,
+                           InspectionBookingRepository bookingRepository,
+                           VehicleOwnerRepository ownerRepository,
+                           CarRepository carRepository,
+                           InspectionOfficerRepository officerRepository,
+                           SlotReservations slotReservations,
+                           PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.bookingRepository = bookingRepository;
+        this.ownerRepository = ownerRepository;
+        this.carRepository = carRepository;
+        this.officerRepository = officerRepository;
+        this.slotReservations = slotReservations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportReportDTO importBookings(InputStream bookingsJson) {
+        ImportReportDTO report = new ImportReportDTO();
+        try (JsonParser parser = objectMapper.getFactory().createParser(bookingsJson)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of bookings");
+            }
+            List<InspectionBookingDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                chunk.add(objectMapper.readValue(parser, InspectionBookingDTO.class));
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, report);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read bookings: " + e.getMessage());
+        }
+        return report;
+    }
+
+    private void importChunk(List<InspectionBookingDTO> chunk, ImportReportDTO report) {
+        int firstRow = report.getTotalRows() + 1;
+        report.setTotalRows(report.getTotalRows() + chunk.size());
+        List<ImportReportDTO.RowResult> results;
+        try {
+            results = transactionTemplate.execute(status -> writeChunk(chunk, firstRow));
+        } catch (RuntimeException e) {
+            log.warn("Bookings {} to {} were rolled back, importing them one at a time: {}",
+                    firstRow, firstRow + chunk.size() - 1, e.getMessage());
+            results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                int row = firstRow + i;
+                List<InspectionBookingDTO> single = chunk.subList(i, i + 1);
+                try {
+                    results.addAll(transactionTemplate.execute(status -> writeChunk(single, row)));
+                } catch (RuntimeException rowError) {
+                    results.add(failure(row, "Could not save booking: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage()));
+                }
+            }
+        }
+        results.forEach(result -> add(report, result));
+    }
+
+    private List<ImportReportDTO.RowResult> writeChunk(List<InspectionBookingDTO> chunk, int firstRow) {
+        Map<Long, VehicleOwner> owners = byId(ownerRepository.findAllById(ids(chunk, InspectionBookingDTO::getVehicleOwnerId)),
+                VehicleOwner::getId);
+        Map<Long, Car> cars = byId(carRepository.findAllById(ids(chunk, InspectionBookingDTO::getCarId)), Car::getId);
+        Map<Long, InspectionOfficer> officers = byId(officerRepository.findAllById(ids(chunk, InspectionBookingDTO::getInspectionOfficerId)),
+                InspectionOfficer::getId);
+        slotReservations.lockOfficers(officers.keySet());
+
+        List<ImportReportDTO.RowResult> results = new ArrayList<>(chunk.size());
+        Map<Long, InspectionBooking> saved = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            InspectionBookingDTO bookingDTO = chunk.get(i);
+            int row = firstRow + i;
+
+            String error = validate(bookingDTO, owners, cars, officers);
+            if (error != null) {
+                results.add(failure(row, error));
+                continue;
+            }
+
+            InspectionBooking booking = new InspectionBooking();
+            BeanUtils.copyProperties(bookingDTO, booking, "id");
+            booking.setVehicleOwner(owners.get(bookingDTO.getVehicleOwnerId()));
+            booking.setCar(cars.get(bookingDTO.getCarId()));
+            booking.setStatus(InspectionBooking.InspectionStatus.SCHEDULED);
+            if (bookingDTO.getInspectionOfficerId() != null) {
+                booking.setInspectionOfficer(officers.get(bookingDTO.getInspectionOfficerId()));
+            }
+            booking = bookingRepository.save(booking);
+
+            if (booking.getInspectionOfficer() != null && !slotReservations.tryClaimNew(
+                    booking.getId(), booking.getInspectionOfficer().getId(), booking.getScheduledDateTime())) {
+                bookingRepository.delete(booking);
+                results.add(failure(row, "Time slot is not available for the selected officer"));
+                continue;
+            }
+            saved.put(booking.getId(), booking);
+            results.add(success(row, booking.getId()));
+        }
+
+        // A claim colliding with a row the calendar never saw costs its booking, not the chunk
+        Set<Long> collided = slotReservations.flushClaims();
+        if (!collided.isEmpty()) {
+            for (int i = 0; i < results.size(); i++) {
+                ImportReportDTO.RowResult result = results.get(i);
+                if (collided.contains(result.getId())) {
+                    bookingRepository.delete(saved.get(result.getId()));
+                    results.set(i, failure(result.getRow(), "Time slot is not available for the selected officer"));
+                }
+            }
+            slotReservations.abandon(collided);
+        }
+        return results;
+    }
+
+    private String validate(InspectionBookingDTO bookingDTO, Map<Long, VehicleOwner> owners,
+                            Map<Long, Car> cars, Map<Long, InspectionOfficer> officers) {
+        Set<ConstraintViolation<InspectionBookingDTO>> violations = validator.validate(bookingDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!owners.containsKey(bookingDTO.getVehicleOwnerId())) {
+            return "Vehicle owner not found";
+        }
+        if (!cars.containsKey(bookingDTO.getCarId())) {
+            return "Car not found";
+        }
+        if (bookingDTO.getInspectionOfficerId() != null && !officers.containsKey(bookingDTO.getInspectionOfficerId())) {
+            return "Officer not found";
+        }
+        return null;
+    }
+
+    private static ImportReportDTO.RowResult success(int row, Long id) {
+        ImportReportDTO.RowResult result = new ImportReportDTO.RowResult();
+        result.setRow(row);
+        result.setImported(true);
+        result.setId(id);
+        return result;
+    }
+
+    private static ImportReportDTO.RowResult failure(int row, String error) {
+        ImportReportDTO.RowResult result = new ImportReportDTO.RowResult();
+        result.setRow(row);
+        result.setError(error);
+        return result;
+    }
+
+    private static void add(ImportReportDTO report, ImportReportDTO.RowResult result) {
+        report.getRows().add(result);
+        if (result.isImported()) {
+            report.setImportedCount(report.getImportedCount() + 1);
+        } else {
+            report.setFailedCount(report.getFailedCount() + 1);
+        }
+    }
+
+    private static List<Long> ids(List<InspectionBookingDTO> chunk, Function<InspectionBookingDTO, Long> id) {
+        return chunk.stream()
+                .map(id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.CarFacetsDTO;
+import com.example.vehicleinspection.dto.CarSearchCriteria;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.listener.CarIndexListener;
+import com.example.vehicleinspection.repository.CarRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory facet index over every car. Each car holds a slot; every make, model, year, insurance provider
+ * and inspection status keeps a bitset of the slots carrying it. A count intersects the bitsets of the
+ * filters, then walks the matching slots once and tallies all facets in that single pass. Car writes, see
+ * {@link CarIndexListener}, are applied after their transaction commits, so dashboards never rescan the table.
+ */
+@Component
+public class CarFacetIndex {
+
+    static final String NONE = "none";
+
+    private final CarRepository carRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsByCar = new HashMap<>();
+    private final List<FacetRow> rows = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, BitSet> makes = new HashMap<>();
+    private final Map<String, BitSet> models = new HashMap<>();
+    private final Map<Integer, BitSet> years = new HashMap<>();
+    private final Map<String, BitSet> insuranceProviders = new HashMap<>();
+    private final Map<String, BitSet> inspectionStatuses = new HashMap<>();
+
+    public CarFacetIndex(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Object[]> facetRows = carRepository.findAllFacetRows();
+        lock.writeLock().lock();
+        try {
+            slotsByCar.clear();
+            rows.clear();
+            freeSlots.clear();
+            live.clear();
+            makes.clear();
+            models.clear();
+            years.clear();
+            insuranceProviders.clear();
+            inspectionStatuses.clear();
+            for (Object[] row : facetRows) {
+                apply((Long) row[0], new FacetRow(Car.searchKey((String) row[1]), Car.searchKey((String) row[2]),
+                        (Integer) row[3], (String) row[4], (String) row[5], (LocalDate) row[6], (LocalDate) row[7]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Car car) {
+        write(car.getId(), rowOf(car));
+    }
+
+    public void remove(Long carId) {
+        write(carId, null);
+    }
+
+    public CarFacetsDTO count(CarSearchCriteria criteria) {
+        LocalDate today = LocalDate.now();
+        Map<String, Long> makeCounts = new TreeMap<>();
+        Map<String, Long> modelCounts = new TreeMap<>();
+        Map<String, Long> yearCounts = new TreeMap<>();
+        Map<String, Long> providerCounts = new TreeMap<>();
+        Map<String, Long> statusCounts = new TreeMap<>();
+        long total = 0;
+        long due = 0;
+        long valid = 0;
+
+        lock.readLock().lock();
+        try {
+            BitSet matching = (BitSet) live.clone();
+            if (StringUtils.hasText(criteria.getMake())) {
+                and(matching, makes.get(Car.searchKey(criteria.getMake())));
+            }
+            if (StringUtils.hasText(criteria.getModel())) {
+                and(matching, models.get(Car.searchKey(criteria.getModel())));
+            }
+            if (criteria.getYearFrom() != null || criteria.getYearTo() != null) {
+                BitSet inRange = new BitSet();
+                years.forEach((year, slots) -> {
+                    if ((criteria.getYearFrom() == null || year >= criteria.getYearFrom())
+                            && (criteria.getYearTo() == null || year <= criteria.getYearTo())) {
+                        inRange.or(slots);
+                    }
+                });
+                matching.and(inRange);
+            }
+            if (StringUtils.hasText(criteria.getInsuranceProvider())) {
+                and(matching, insuranceProviders.get(criteria.getInsuranceProvider()));
+            }
+            if (StringUtils.hasText(criteria.getLastInspectionStatus())) {
+                and(matching, inspectionStatuses.get(criteria.getLastInspectionStatus()));
+            }
+
+            for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+                FacetRow row = rows.get(slot);
+                boolean inspectionDue = Car.isInspectionDue(row.nextInspectionDueDate(), today);
+                boolean insuranceValid = Car.isInsuranceValid(row.insuranceExpiryDate(), today);
+                // Date dependent facets cannot be precomputed, they are checked row by row
+                if (criteria.getInspectionDue() != null && criteria.getInspectionDue() != inspectionDue) {
+                    continue;
+                }
+                if (criteria.getInsuranceValid() != null && criteria.getInsuranceValid() != insuranceValid) {
+                    continue;
+                }
+                total++;
+                makeCounts.merge(label(row.make()), 1L, Long::sum);
+                modelCounts.merge(label(row.model()), 1L, Long::sum);
+                yearCounts.merge(label(row.year()), 1L, Long::sum);
+                providerCounts.merge(label(row.insuranceProvider()), 1L, Long::sum);
+                statusCounts.merge(label(row.inspectionStatus()), 1L, Long::sum);
+                if (inspectionDue) {
+                    due++;
+                }
+                if (insuranceValid) {
+                    valid++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        CarFacetsDTO facets = new CarFacetsDTO();
+        facets.setTotalCars(total);
+        facets.setMakes(makeCounts);
+        facets.setModels(modelCounts);
+        facets.setYears(yearCounts);
+        facets.setInsuranceProviders(providerCounts);
+        facets.setInspectionStatuses(statusCounts);
+        facets.setInspectionDue(due);
+        facets.setInsuranceValid(valid);
+        return facets;
+    }
+
+    private static FacetRow rowOf(Car car) {
+        // Keys are computed here, the entity's own are only refreshed when it is flushed
+        return new FacetRow(Car.searchKey(car.getMake()), Car.searchKey(car.getModel()), car.getYear(),
+                car.getInsuranceProvider(), car.getLastInspectionStatus(),
+                car.getNextInspectionDueDate(), car.getInsuranceExpiryDate());
+    }
+
+    private void write(Long carId, FacetRow row) {
+        Map<Long, FacetRow> pending = TransactionHooks.resource(this, () -> {
+            Map<Long, FacetRow> facetRows = new HashMap<>();
+            TransactionHooks.afterCommit(() -> apply(facetRows));
+            return facetRows;
+        });
+        if (pending != null) {
+            pending.put(carId, row);
+        } else {
+            apply(Collections.singletonMap(carId, row));
+        }
+    }
+
+    /**
+     * Applies the rows written by a transaction in one write; a null row removes the car.
+     */
+    private void apply(Map<Long, FacetRow> facetRows) {
+        lock.writeLock().lock();
+        try {
+            facetRows.forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Long carId, FacetRow row) {
+        Integer slot = slotsByCar.get(carId);
+        if (slot != null) {
+            FacetRow previous = rows.get(slot);
+            unpost(makes, previous.make(), slot);
+            unpost(models, previous.model(), slot);
+            unpost(years, previous.year(), slot);
+            unpost(insuranceProviders, previous.insuranceProvider(), slot);
+            unpost(inspectionStatuses, previous.inspectionStatus(), slot);
+            if (row == null) {
+                slotsByCar.remove(carId);
+                rows.set(slot, null);
+                live.clear(slot);
+                freeSlots.push(slot);
+                return;
+            }
+        } else if (row == null) {
+            return;
+        } else if (!freeSlots.isEmpty()) {
+            slot = freeSlots.pop();
+            slotsByCar.put(carId, slot);
+        } else {
+            slot = rows.size();
+            rows.add(null);
+            slotsByCar.put(carId, slot);
+        }
+
+        rows.set(slot, row);
+        live.set(slot);
+        post(makes, row.make(), slot);
+        post(models, row.model(), slot);
+        post(years, row.year(), slot);
+        post(insuranceProviders, row.insuranceProvider(), slot);
+        post(inspectionStatuses, row.inspectionStatus(), slot);
+    }
+
+    private static <K> void post(Map<K, BitSet> postings, K value, int slot) {
+        if (value != null) {
+            postings.computeIfAbsent(value, v -> new BitSet()).set(slot);
+        }
+    }
+
+    private static <K> void unpost(Map<K, BitSet> postings, K value, int slot) {
+        if (value == null) {
+            return;
+        }
+        BitSet slots = postings.get(value);
+        if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                postings.remove(value);
+            }
+        }
+    }
+
+    private static void and(BitSet matching, BitSet slots) {
+        if (slots == null) {
+            matching.clear();
+        } else {
+            matching.and(slots);
+        }
+    }
+
+    private static String label(Object value) {
+        return value == null ? NONE : value.toString();
+    }
+
+    private record FacetRow(String make, String model, Integer year, String insuranceProvider,
+                            String inspectionStatus, LocalDate nextInspectionDueDate, LocalDate insuranceExpiryDate) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.CarSearchCriteria;
+import com.example.vehicleinspection.model.Car;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds car searches from {@link CarSearchCriteria}. Only the filters that are set become predicates, so
+ * each combination runs as a plain indexed query, and owners are fetched in the same statement.
+ */
+@Component
+public class CarSearch {
+
+    private final EntityManager entityManager;
+
+    public CarSearch(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public List<Car> findAll(CarSearchCriteria criteria) {
+        return query(criteria, null).getResultList();
+    }
+
+    /**
+     * Keyset page in id order: up to {@code limit} matches with an id greater than {@code afterId}.
+     */
+    public List<Car> findPage(CarSearchCriteria criteria, Long afterId, int limit) {
+        return query(criteria, afterId).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<Car> query(CarSearchCriteria criteria, Long afterId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Car> query = cb.createQuery(Car.class);
+        Root<Car> car = query.from(Car.class);
+        car.fetch("owner");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (StringUtils.hasText(criteria.getMake())) {
+            predicates.add(cb.equal(car.get("makeKey"), Car.searchKey(criteria.getMake())));
+        }
+        if (StringUtils.hasText(criteria.getModel())) {
+            predicates.add(cb.equal(car.get("modelKey"), Car.searchKey(criteria.getModel())));
+        }
+        if (criteria.getYearFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(car.get("year"), criteria.getYearFrom()));
+        }
+        if (criteria.getYearTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(car.get("year"), criteria.getYearTo()));
+        }
+        if (StringUtils.hasText(criteria.getInsuranceProvider())) {
+            predicates.add(cb.equal(car.get("insuranceProvider"), criteria.getInsuranceProvider()));
+        }
+        if (StringUtils.hasText(criteria.getLastInspectionStatus())) {
+            predicates.add(cb.equal(car.get("lastInspectionStatus"), criteria.getLastInspectionStatus()));
+        }
+        if (criteria.getInspectionDue() != null) {
+            Predicate due = cb.or(
+                    cb.isNull(car.get("nextInspectionDueDate")),
+                    cb.lessThanOrEqualTo(car.get("nextInspectionDueDate"), LocalDate.now()));
+            predicates.add(criteria.getInspectionDue() ? due : cb.not(due));
+        }
+        if (criteria.getInsuranceValid() != null) {
+            Predicate valid = cb.and(
+                    cb.isNotNull(car.get("insuranceExpiryDate")),
+                    cb.greaterThan(car.get("insuranceExpiryDate"), LocalDate.now()));
+            predicates.add(criteria.getInsuranceValid() ? valid : cb.not(valid));
+        }
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(car.get("id"), afterId));
+        }
+
+        query.select(car)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(car.get("id")));
+        return entityManager.createQuery(query);
+    }
+}
@@ -3,29 +3,89 @@ package com.example.vehicleinspection.service.impl;
 import com.example.vehicleinspection.model.Car;
 import com.example.vehicleinspection.model.VehicleOwner;
 import com.example.vehicleinspection.dto.CarDTO;
+import com.example.vehicleinspection.dto.CarFacetsDTO;
+import com.example.vehicleinspection.dto.CarSearchCriteria;
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.ImportReportDTO;
+import com.example.vehicleinspection.dto.PlateCandidateDTO;
+import com.example.vehicleinspection.dto.PlateVerificationDTO;
+import com.example.vehicleinspection.dto.TimelineEntryDTO;
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.Publication;
+import com.example.vehicleinspection.repository.AnalyticsRepository;
 import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.PublicationRepository;
 import com.example.vehicleinspection.repository.VehicleOwnerRepository;
 import com.example.vehicleinspection.service.CarService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class CarServiceImpl extends BaseServiceImpl<Car, Long> implements CarService {
 
+    private static final int ID_BATCH_SIZE = 1000;
+
+    // Newest first; entries without a date go last, ties are broken by type and id
+    private static final Comparator<TimelineEntryDTO> TIMELINE_ORDER = Comparator
+            .comparing(TimelineEntryDTO::getOccurredAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(CarServiceImpl::timelineKey);
+
     private final CarRepository carRepository;
     private final VehicleOwnerRepository vehicleOwnerRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final PlateVerificationCache plateVerificationCache;
+    private final FuzzyPlateIndex fuzzyPlateIndex;
+    private final CarSearch carSearch;
+    private final CarFacetIndex carFacetIndex;
+    private final ComplianceSchedule complianceSchedule;
+    private final FleetImporter fleetImporter;
+    private final InspectionBookingRepository bookingRepository;
+    private final AnalyticsRepository analyticsRepository;
+    private final PublicationRepository publicationRepository;
+    private final VehicleTimelineCache timelineCache;
+    private final UniquenessGuard uniquenessGuard;
 
-    public CarServiceImpl(CarRepository carRepository, VehicleOwnerRepository vehicleOwnerRepository) {
-        super(carRepository);
+    public CarServiceImpl(CarRepository carRepository, VehicleOwnerRepository vehicleOwnerRepository,
+                          NdjsonExporter ndjsonExporter, PlateVerificationCache plateVerificationCache,
+                          FuzzyPlateIndex fuzzyPlateIndex, CarSearch carSearch, CarFacetIndex carFacetIndex,
+                          ComplianceSchedule complianceSchedule, FleetImporter fleetImporter,
+                          InspectionBookingRepository bookingRepository, AnalyticsRepository analyticsRepository,
+                          PublicationRepository publicationRepository, VehicleTimelineCache timelineCache,
+                          UniquenessGuard uniquenessGuard) {
+        super(carRepository, Car::getId, Long::valueOf);
         this.carRepository = carRepository;
         this.vehicleOwnerRepository = vehicleOwnerRepository;
+        this.ndjsonExporter = ndjsonExporter;
+        this.plateVerificationCache = plateVerificationCache;
+        this.fuzzyPlateIndex = fuzzyPlateIndex;
+        this.carSearch = carSearch;
+        this.carFacetIndex = carFacetIndex;
+        this.complianceSchedule = complianceSchedule;
+        this.fleetImporter = fleetImporter;
+        this.bookingRepository = bookingRepository;
+        this.analyticsRepository = analyticsRepository;
+        this.publicationRepository = publicationRepository;
+        this.timelineCache = timelineCache;
+        this.uniquenessGuard = uniquenessGuard;
     }
 
     @Override
@@ -34,9 +94,11 @@ public class CarServiceImpl extends BaseServiceImpl<Car, Long> implements CarSer
                 .orElseThrow(() -> new RuntimeException("Owner not found with id: " + carDTO.getOwnerId()));
 
         Car car = new Car();
-        BeanUtils.copyProperties(carDTO, car);
+        // The due date follows the last inspection date, never the request
+        BeanUtils.copyProperties(carDTO, car, "nextInspectionDueDate");
         car.setOwner(owner);
         car = carRepository.save(car);
+        plateVerificationCache.invalidate(car.getNormalizedPlate());
         return convertToDTO(car);
     }
 
@@ -44,24 +106,74 @@ public class CarServiceImpl extends BaseServiceImpl<Car, Long> implements CarSer
     public CarDTO updateCar(Long id, CarDTO carDTO) {
         return carRepository.findById(id)
                 .map(car -> {
+                    plateVerificationCache.invalidate(Car.normalizePlate(car.getLicensePlate()));
                     if (!car.getOwner().getId().equals(carDTO.getOwnerId())) {
                         VehicleOwner newOwner = vehicleOwnerRepository.findById(carDTO.getOwnerId())
                                 .orElseThrow(() -> new RuntimeException("Owner not found with id: " + carDTO.getOwnerId()));
                         car.setOwner(newOwner);
                     }
-                    BeanUtils.copyProperties(carDTO, car, "id", "owner");
+                    BeanUtils.copyProperties(carDTO, car, "id", "owner", "nextInspectionDueDate");
                     car = carRepository.save(car);
+                    plateVerificationCache.invalidate(Car.normalizePlate(car.getLicensePlate()));
                     return convertToDTO(car);
                 })
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
     }
 
+    /**
+     * Runs outside a transaction, so the importer can commit each chunk on its own.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportReportDTO importFleetCsv(InputStream csv) {
+        return fleetImporter.importCsv(csv);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportReportDTO importFleetJsonLines(InputStream jsonLines) {
+        return fleetImporter.importJsonLines(jsonLines);
+    }
+
     @Override
     public Optional<CarDTO> findByLicensePlate(String licensePlate) {
         return carRepository.findByLicensePlate(licensePlate)
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Served from {@link PlateVerificationCache}, so a hit neither queries nor opens a transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public PlateVerificationDTO verifyPlate(String plate) {
+        return plateVerificationCache.get(Car.normalizePlate(plate), this::loadVerification);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<PlateCandidateDTO> findPlateCandidates(String plate, int maxDistance, int limit) {
+        return fuzzyPlateIndex.candidates(plate, maxDistance, limit);
+    }
+
+    /**
+     * Pages through the car's bookings, inspection results and publications, newest first. The merged
+     * timeline comes from {@link VehicleTimelineCache}, so a hit costs only the plate lookup.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDTO<TimelineEntryDTO> getTimeline(String plate, String cursor, int size) {
+        Long carId = carRepository.findIdsByNormalizedPlate(Car.normalizePlate(plate)).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Car not found with license plate: " + plate));
+        List<TimelineEntryDTO> timeline = timelineCache.get(carId, this::loadTimeline);
+
+        int pageSize = KeysetCursor.pageSize(size);
+        int from = cursor == null ? 0 : timelineStart(timeline, cursor);
+        List<TimelineEntryDTO> rows = timeline.subList(from, Math.min(from + pageSize + 1, timeline.size()));
+        return KeysetCursor.page(rows, pageSize, CarServiceImpl::timelineCursor, Function.identity());
+    }
+
     @Override
     public List<CarDTO> findByOwner(Long ownerId) {
         VehicleOwner owner = vehicleOwnerRepository.findById(ownerId)
@@ -78,24 +190,56 @@ public class CarServiceImpl extends BaseServiceImpl<Car, Long> implements CarSer
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDTO<CarDTO> findAllCars(String cursor, int size) {
+        return findAll(cursor, size, this::convertToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCars(OutputStream out) {
+        return ndjsonExporter.export(carRepository.streamAllWithOwner(), this::convertToDTO, out);
+    }
+
+    @Override
+    public void deleteCar(Long id) {
+        deleteById(id);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        carRepository.findById(id)
+                .ifPresent(car -> plateVerificationCache.invalidate(Car.normalizePlate(car.getLicensePlate())));
+        super.deleteById(id);
+    }
+
     @Override
     public boolean existsByLicensePlate(String licensePlate) {
-        return carRepository.existsByLicensePlate(licensePlate);
+        // Plates that normalize differently cannot be equal, so a miss on the normalized plate is final
+        return uniquenessGuard.mightExist(UniquenessGuard.Key.CAR_PLATE, Car.normalizePlate(licensePlate))
+                && carRepository.existsByLicensePlate(licensePlate);
     }
 
     @Override
     public List<CarDTO> findCarsNeedingInspection() {
-        LocalDate oneYearAgo = LocalDate.now().minusYears(1);
-        return carRepository.findByLastInspectionDateBefore(oneYearAgo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return findCarsDueForInspectionWithin(0);
     }
 
     @Override
     public List<CarDTO> findCarsWithExpiredInsurance() {
-        return carRepository.findByInsuranceExpiryDateBefore(LocalDate.now()).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return findCarsWithInsuranceExpiringWithin(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CarDTO> findCarsDueForInspectionWithin(int days) {
+        return loadInOrder(complianceSchedule.dueForInspectionBy(LocalDate.now().plusDays(days)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CarDTO> findCarsWithInsuranceExpiringWithin(int days) {
+        return loadInOrder(complianceSchedule.insuranceExpiringBy(LocalDate.now().plusDays(days)));
     }
 
     @Override
@@ -105,6 +249,7 @@ public class CarServiceImpl extends BaseServiceImpl<Car, Long> implements CarSer
                     car.setLastInspectionStatus(status);
                     car.setLastInspectionDate(inspectionDate);
                     car = carRepository.save(car);
+                    plateVerificationCache.invalidate(Car.normalizePlate(car.getLicensePlate()));
                     return convertToDTO(car);
                 })
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
@@ -118,6 +263,7 @@ public class CarServiceImpl extends BaseServiceImpl<Car, Long> implements CarSer
                     car.setInsurancePolicyNumber(policyNumber);
                     car.setInsuranceExpiryDate(expiryDate);
                     car = carRepository.save(car);
+                    plateVerificationCache.invalidate(Car.normalizePlate(car.getLicensePlate()));
                     return convertToDTO(car);
                 })
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
@@ -126,43 +272,190 @@ public class CarServiceImpl extends BaseServiceImpl<Car, Long> implements CarSer
     @Override
     public boolean isInspectionDue(Long id) {
         return carRepository.findById(id)
-                .map(car -> car.getLastInspectionDate() == null ||
-                        car.getLastInspectionDate().isBefore(LocalDate.now().minusYears(1)))
+                .map(CarServiceImpl::isInspectionDue)
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
     }
 
     @Override
     public boolean isInsuranceValid(Long id) {
         return carRepository.findById(id)
-                .map(car -> car.getInsuranceExpiryDate() != null &&
-                        car.getInsuranceExpiryDate().isAfter(LocalDate.now()))
+                .map(CarServiceImpl::isInsuranceValid)
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CarDTO> findCarsByMakeAndModel(String make, String model) {
-        return carRepository.findAll().stream()
-                .filter(car -> car.getMake().equalsIgnoreCase(make) &&
-                        car.getModel().equalsIgnoreCase(model))
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setMake(make);
+        criteria.setModel(model);
+        return carSearch.findAll(criteria).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CarDTO> findCarsByYear(Integer year) {
-        return carRepository.findAll().stream()
-                .filter(car -> car.getYear().equals(year))
+        CarSearchCriteria criteria = new CarSearchCriteria();
+        criteria.setYearFrom(year);
+        criteria.setYearTo(year);
+        return carSearch.findAll(criteria).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CarFacetsDTO countCarFacets(CarSearchCriteria criteria) {
+        return carFacetIndex.count(criteria);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CarDTO> searchCars(CarSearchCriteria criteria, String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Long afterId = cursor == null ? null : KeysetCursor.decodeId(cursor);
+        List<Car> rows = carSearch.findPage(criteria, afterId, pageSize + 1);
+        return KeysetCursor.page(rows, pageSize, car -> KeysetCursor.encode(car.getId()), this::convertToDTO);
+    }
+
     private CarDTO convertToDTO(Car car) {
         CarDTO dto = new CarDTO();
         BeanUtils.copyProperties(car, dto);
         dto.setOwnerId(car.getOwner().getId());
         dto.setOwnerName(car.getOwner().getFirstName() + " " + car.getOwner().getLastName());
-        dto.setInsuranceValid(isInsuranceValid(car.getId()));
-        dto.setInspectionDue(isInspectionDue(car.getId()));
+        dto.setInsuranceValid(isInsuranceValid(car));
+        dto.setInspectionDue(isInspectionDue(car));
         return dto;
     }
+
+    /**
+     * Merges the car's bookings, inspection results and publications, one query each.
+     */
+    private List<TimelineEntryDTO> loadTimeline(Long carId) {
+        List<TimelineEntryDTO> timeline = new ArrayList<>();
+        for (Object[] row : bookingRepository.findTimelineRowsByCarId(carId)) {
+            TimelineEntryDTO entry = timelineEntry(TimelineEntryDTO.BOOKING, (Long) row[0], (LocalDateTime) row[1]);
+            InspectionBooking.InspectionStatus status = (InspectionBooking.InspectionStatus) row[2];
+            entry.setTitle(row[3] != null ? "Inspection booking: " + row[3] : "Inspection booking");
+            entry.setStatus(status != null ? status.name() : null);
+            timeline.add(entry);
+        }
+        for (Object[] row : analyticsRepository.findTimelineRowsByCarId(carId)) {
+            TimelineEntryDTO entry = timelineEntry(TimelineEntryDTO.INSPECTION_RESULT, (Long) row[0], (LocalDateTime) row[2]);
+            entry.setBookingId((Long) row[1]);
+            entry.setTitle(row[3] != null ? "Inspection result: " + row[3] : "Inspection result");
+            entry.setStatus((String) row[4]);
+            entry.setPassed((Boolean) row[5]);
+            entry.setScore((Double) row[6]);
+            entry.setDefectsFound((Integer) row[7]);
+            timeline.add(entry);
+        }
+        for (Object[] row : publicationRepository.findTimelineRowsByCarId(carId)) {
+            TimelineEntryDTO entry = timelineEntry(TimelineEntryDTO.PUBLICATION, (Long) row[0], (LocalDateTime) row[1]);
+            Publication.NotificationType type = (Publication.NotificationType) row[2];
+            entry.setTitle(row[3] != null ? (String) row[3] : type != null ? type.name() : null);
+            entry.setStatus((String) row[4]);
+            timeline.add(entry);
+        }
+        timeline.sort(TIMELINE_ORDER);
+        return timeline;
+    }
+
+    private static TimelineEntryDTO timelineEntry(String type, Long id, LocalDateTime occurredAt) {
+        TimelineEntryDTO entry = new TimelineEntryDTO();
+        entry.setType(type);
+        entry.setId(id);
+        entry.setOccurredAt(occurredAt);
+        return entry;
+    }
+
+    private static String timelineKey(TimelineEntryDTO entry) {
+        return entry.getType() + ":" + entry.getId();
+    }
+
+    private static String timelineCursor(TimelineEntryDTO entry) {
+        return KeysetCursor.encode(entry.getOccurredAt(), timelineKey(entry));
+    }
+
+    /**
+     * Index of the first entry ordered after the cursor. Comparing positions rather than looking the entry
+     * up keeps paging stable when the entry itself was removed in the meantime.
+     */
+    private static int timelineStart(List<TimelineEntryDTO> timeline, String cursor) {
+        String sortKey = KeysetCursor.sortKeyPart(cursor);
+        TimelineEntryDTO last = new TimelineEntryDTO();
+        try {
+            last.setOccurredAt(sortKey == null ? null : LocalDateTime.parse(sortKey));
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+        String key = KeysetCursor.idPart(cursor);
+        int separator = key.indexOf(':');
+        if (separator < 0) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+        last.setType(key.substring(0, separator));
+        try {
+            last.setId(Long.valueOf(key.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+
+        int from = 0;
+        while (from < timeline.size() && TIMELINE_ORDER.compare(timeline.get(from), last) <= 0) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Loads cars with their owners, keeping the order of the ids.
+     */
+    private List<CarDTO> loadInOrder(List<Long> ids) {
+        Map<Long, Car> cars = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            carRepository.findAllWithOwnerByIdIn(batch).forEach(car -> cars.put(car.getId(), car));
+        }
+        return ids.stream()
+                .map(cars::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    private PlateVerificationDTO loadVerification(String normalizedPlate) {
+        PlateVerificationDTO result = new PlateVerificationDTO();
+        result.setNormalizedPlate(normalizedPlate);
+        List<Car> cars = carRepository.findByNormalizedPlateWithOwner(normalizedPlate);
+        if (cars.isEmpty()) {
+            return result;
+        }
+
+        Car car = cars.get(0);
+        result.setRegistered(true);
+        result.setCarId(car.getId());
+        result.setLicensePlate(car.getLicensePlate());
+        result.setMake(car.getMake());
+        result.setModel(car.getModel());
+        result.setYear(car.getYear());
+        result.setOwnerId(car.getOwner().getId());
+        result.setOwnerName(car.getOwner().getFirstName() + " " + car.getOwner().getLastName());
+        result.setInsuranceExpiryDate(car.getInsuranceExpiryDate());
+        result.setInsuranceValid(isInsuranceValid(car));
+        result.setLastInspectionDate(car.getLastInspectionDate());
+        result.setLastInspectionStatus(car.getLastInspectionStatus());
+        result.setInspectionDue(isInspectionDue(car));
+        return result;
+    }
+
+    private static boolean isInspectionDue(Car car) {
+        return Car.isInspectionDue(car.getNextInspectionDueDate(), LocalDate.now());
+    }
+
+    private static boolean isInsuranceValid(Car car) {
+        return Car.isInsuranceValid(car.getInsuranceExpiryDate(), LocalDate.now());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.listener.CarIndexListener;
+import com.example.vehicleinspection.repository.CarRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Date-ordered schedule of when each car falls due for inspection and when its insurance expires. Both
+ * are sorted maps from date to cars, so "due by" and "expiring by" questions are range reads in date
+ * order instead of scans. Kept current by {@link CarIndexListener}.
+ */
+@Component
+public class ComplianceSchedule {
+
+    private final CarRepository carRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<LocalDate, Set<Long>> inspectionDue = new TreeMap<>();
+    private final NavigableMap<LocalDate, Set<Long>> insuranceExpiry = new TreeMap<>();
+    private final Map<Long, LocalDate> inspectionDueByCar = new HashMap<>();
+    private final Map<Long, LocalDate> insuranceExpiryByCar = new HashMap<>();
+
+    public ComplianceSchedule(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Object[]> dates = carRepository.findAllComplianceDates();
+        lock.writeLock().lock();
+        try {
+            inspectionDue.clear();
+            insuranceExpiry.clear();
+            inspectionDueByCar.clear();
+            insuranceExpiryByCar.clear();
+            LocalDate today = LocalDate.now();
+            for (Object[] row : dates) {
+                apply((Long) row[0], row[1] != null ? (LocalDate) row[1] : today, (LocalDate) row[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Car car) {
+        write(car.getId(), new Dates(dueDateOf(car), car.getInsuranceExpiryDate()));
+    }
+
+    public void remove(Long carId) {
+        write(carId, new Dates(null, null));
+    }
+
+    /**
+     * Cars due for inspection on or before {@code date}, earliest first.
+     */
+    public List<Long> dueForInspectionBy(LocalDate date) {
+        return headIds(inspectionDue, date);
+    }
+
+    /**
+     * Cars whose insurance expires on or before {@code date}, earliest first.
+     */
+    public List<Long> insuranceExpiringBy(LocalDate date) {
+        return headIds(insuranceExpiry, date);
+    }
+
+    private List<Long> headIds(NavigableMap<LocalDate, Set<Long>> schedule, LocalDate date) {
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Set<Long> cars : schedule.headMap(date, true).values()) {
+                ids.addAll(cars);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    private static LocalDate dueDateOf(Car car) {
+        // A car without a due date counts as due, like Car.isInspectionDue treats it
+        return car.getNextInspectionDueDate() != null ? car.getNextInspectionDueDate() : LocalDate.now();
+    }
+
+    private void write(Long carId, Dates dates) {
+        Map<Long, Dates> pending = TransactionHooks.resource(this, () -> {
+            Map<Long, Dates> datesByCar = new HashMap<>();
+            TransactionHooks.afterCommit(() -> apply(datesByCar));
+            return datesByCar;
+        });
+        if (pending != null) {
+            pending.put(carId, dates);
+        } else {
+            apply(Collections.singletonMap(carId, dates));
+        }
+    }
+
+    /**
+     * Applies the dates written by a transaction in one write; null dates take the car off that schedule.
+     */
+    private void apply(Map<Long, Dates> datesByCar) {
+        lock.writeLock().lock();
+        try {
+            datesByCar.forEach((carId, dates) -> apply(carId, dates.nextInspectionDue(), dates.insuranceExpiry()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Long carId, LocalDate nextInspectionDueDate, LocalDate insuranceExpiryDate) {
+        move(inspectionDue, inspectionDueByCar, carId, nextInspectionDueDate);
+        move(insuranceExpiry, insuranceExpiryByCar, carId, insuranceExpiryDate);
+    }
+
+    private static void move(NavigableMap<LocalDate, Set<Long>> schedule, Map<Long, LocalDate> datesByCar,
+                             Long carId, LocalDate date) {
+        LocalDate previous = date == null ? datesByCar.remove(carId) : datesByCar.put(carId, date);
+        if (previous != null) {
+            Set<Long> cars = schedule.get(previous);
+            if (cars != null) {
+                cars.remove(carId);
+                if (cars.isEmpty()) {
+                    schedule.remove(previous);
+                }
+            }
+        }
+        if (date != null) {
+            schedule.computeIfAbsent(date, d -> new LinkedHashSet<>()).add(carId);
+        }
+    }
+
+    private record Dates(LocalDate nextInspectionDue, LocalDate insuranceExpiry) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.model.Publication;
+import com.example.vehicleinspection.model.SweepCheckpoint;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.PublicationRepository;
+import com.example.vehicleinspection.repository.SweepCheckpointRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Nightly job turning due inspections and expiring insurance into INSPECTION_REMINDER and DOCUMENT_EXPIRY
+ * publications. Cars are read in id order, one chunk per transaction. Each chunk inserts its reminders in
+ * JDBC batches and moves the checkpoint in the same commit, so a crashed run resumes after the last chunk
+ * that made it. Every reminder carries a key of car, kind and due date; keys already sent are skipped,
+ * which makes re-running a chunk harmless.
+ */
+@Component
+public class ComplianceSweep {
+
+    static final String CHECKPOINT_NAME = "compliance-sweep";
+    static final int CHUNK_SIZE = 500;
+    static final int REMINDER_DAYS_AHEAD = 30;
+
+    private static final Logger log = LoggerFactory.getLogger(ComplianceSweep.class);
+
+    private final CarRepository carRepository;
+    private final PublicationRepository publicationRepository;
+    private final SweepCheckpointRepository checkpointRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public ComplianceSweep(CarRepository carRepository,
+                           PublicationRepository publicationRepository,
+                           SweepCheckpointRepository checkpointRepository,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager) {
+        this.carRepository = carRepository;
+        this.publicationRepository = publicationRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${compliance.sweep.cron:0 0 2 * * *}")
+    public void run() {
+        LocalDate today = LocalDate.now();
+        SweepCheckpoint checkpoint = transactionTemplate.execute(status -> startOrResume(today));
+        if (checkpoint.isCompleted()) {
+            return;
+        }
+        if (checkpoint.getLastProcessedId() > 0) {
+            log.info("Resuming compliance sweep of {} after car {}", today, checkpoint.getLastProcessedId());
+        }
+
+        boolean more = true;
+        while (more) {
+            more = Boolean.TRUE.equals(transactionTemplate.execute(status -> sweepChunk(today)));
+        }
+
+        SweepCheckpoint finished = checkpointRepository.findById(CHECKPOINT_NAME).orElseThrow();
+        log.info("Compliance sweep of {} checked {} cars and created {} reminders",
+                today, finished.getProcessedCount(), finished.getCreatedCount());
+    }
+
+    private SweepCheckpoint startOrResume(LocalDate today) {
+        SweepCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME).orElseGet(() -> {
+            SweepCheckpoint created = new SweepCheckpoint();
+            created.setName(CHECKPOINT_NAME);
+            return created;
+        });
+        // A run left over from an earlier day is not resumed; today's run covers everything it missed
+        if (!today.equals(checkpoint.getRunDate())) {
+            checkpoint.setRunDate(today);
+            checkpoint.setLastProcessedId(0L);
+            checkpoint.setProcessedCount(0);
+            checkpoint.setCreatedCount(0);
+            checkpoint.setCompleted(false);
+        }
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Handles the chunk after the checkpoint and returns whether another one may follow.
+     */
+    private boolean sweepChunk(LocalDate today) {
+        SweepCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME).orElseThrow();
+        LocalDate remindBy = today.plusDays(REMINDER_DAYS_AHEAD);
+        List<Object[]> cars = carRepository.findComplianceCandidatesAfter(
+                checkpoint.getLastProcessedId(), remindBy, remindBy, PageRequest.of(0, CHUNK_SIZE));
+
+        Map<String, Publication> reminders = new LinkedHashMap<>();
+        for (Object[] row : cars) {
+            Long carId = (Long) row[0];
+            Long ownerId = (Long) row[1];
+            String licensePlate = (String) row[2];
+            LocalDate inspectionDue = (LocalDate) row[3];
+            LocalDate insuranceExpiry = (LocalDate) row[4];
+            if (inspectionDue != null && !inspectionDue.isAfter(remindBy)) {
+                Publication reminder = inspectionReminder(carId, ownerId, licensePlate, inspectionDue, today);
+                reminders.put(reminder.getReminderKey(), reminder);
+            }
+            if (insuranceExpiry != null && !insuranceExpiry.isAfter(remindBy)) {
+                Publication reminder = insuranceReminder(carId, ownerId, licensePlate, insuranceExpiry, today);
+                reminders.put(reminder.getReminderKey(), reminder);
+            }
+        }
+
+        if (!reminders.isEmpty()) {
+            Set<String> alreadySent = new HashSet<>(publicationRepository.findExistingReminderKeys(reminders.keySet()));
+            List<Publication> toSend = new ArrayList<>();
+            reminders.forEach((key, reminder) -> {
+                if (!alreadySent.contains(key)) {
+                    toSend.add(reminder);
+                }
+            });
+            publicationRepository.saveAll(toSend);
+            checkpoint.setCreatedCount(checkpoint.getCreatedCount() + toSend.size());
+        }
+
+        boolean more = cars.size() == CHUNK_SIZE;
+        if (!cars.isEmpty()) {
+            checkpoint.setLastProcessedId((Long) cars.get(cars.size() - 1)[0]);
+            checkpoint.setProcessedCount(checkpoint.getProcessedCount() + cars.size());
+        }
+        checkpoint.setCompleted(!more);
+        checkpointRepository.save(checkpoint);
+
+        entityManager.flush();
+        entityManager.clear();
+        return more;
+    }
+
+    private Publication inspectionReminder(Long carId, Long ownerId, String licensePlate, LocalDate dueDate,
+                                           LocalDate today) {
+        boolean overdue = dueDate.isBefore(today);
+        Publication reminder = reminder(carId, ownerId, Publication.NotificationType.INSPECTION_REMINDER, dueDate);
+        reminder.setTitle(overdue ? "Vehicle inspection overdue" : "Vehicle inspection due soon");
+        reminder.setContent("The inspection of vehicle " + licensePlate + (overdue ? " was due on " : " is due on ")
+                + dueDate + ". Please book an inspection.");
+        reminder.setPriority(overdue ? "HIGH" : "MEDIUM");
+        return reminder;
+    }
+
+    private Publication insuranceReminder(Long carId, Long ownerId, String licensePlate, LocalDate expiryDate,
+                                          LocalDate today) {
+        boolean expired = !expiryDate.isAfter(today);
+        Publication reminder = reminder(carId, ownerId, Publication.NotificationType.DOCUMENT_EXPIRY, expiryDate);
+        reminder.setTitle(expired ? "Vehicle insurance expired" : "Vehicle insurance expiring soon");
+        reminder.setContent("The insurance of vehicle " + licensePlate + (expired ? " expired on " : " expires on ")
+                + expiryDate + ". Please renew it.");
+        reminder.setPriority(expired ? "HIGH" : "MEDIUM");
+        return reminder;
+    }
+
+    private Publication reminder(Long carId, Long ownerId, Publication.NotificationType type, LocalDate date) {
+        Publication reminder = new Publication();
+        // Only the owner id is needed for the insert, so no owner row is loaded
+        reminder.setVehicleOwner(entityManager.getReference(VehicleOwner.class, ownerId));
+        reminder.setType(type);
+        reminder.setCarId(carId);
+        // One reminder per car, kind and due date; a renewed date gets a new one
+        reminder.setReminderKey(type + ":" + carId + ":" + date);
+        reminder.setScheduledFor(LocalDateTime.now());
+        reminder.setStatus("PENDING");
+        reminder.setSendEmail(true);
+        return reminder;
+    }
+}
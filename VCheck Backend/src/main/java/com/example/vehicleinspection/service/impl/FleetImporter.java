@@ -0,0 +1,362 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.FleetRowDTO;
+import com.example.vehicleinspection.dto.ImportReportDTO;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Onboards a fleet of cars and their owners from CSV or JSON lines, one car per line. Lines are read in
+ * chunks; a thread pool parses and validates the next chunk while the current one is written. Each chunk
+ * checks its plates and driver licenses against the database with one set-based query per kind, reuses
+ * owners that already exist, and inserts the rest in JDBC batches using ids from pooled sequences. Each
+ * chunk commits in its own transaction; a chunk whose commit fails is written again row by row, so one
+ * bad row does not cost the others.
+ */
+@Component
+public class FleetImporter {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int PARSE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final Logger log = LoggerFactory.getLogger(FleetImporter.class);
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final VehicleOwnerRepository ownerRepository;
+    private final CarRepository carRepository;
+    private final PlateVerificationCache plateVerificationCache;
+    private final UniquenessGuard uniquenessGuard;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService parsePool = Executors.newFixedThreadPool(PARSE_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "fleet-import-parser");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FleetImporter(ObjectMapper objectMapper,
+                         Validator validator,
+                         VehicleOwnerRepository ownerRepository,
+                         CarRepository carRepository,
+                         PlateVerificationCache plateVerificationCache,
+                         UniquenessGuard uniquenessGuard,
+                         PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.ownerRepository = ownerRepository;
+        this.carRepository = carRepository;
+        this.plateVerificationCache = plateVerificationCache;
+        this.uniquenessGuard = uniquenessGuard;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        parsePool.shutdownNow();
+    }
+
+    /**
+     * The first line is a header naming the {@link FleetRowDTO} property of each column. Fields may be quoted,
+     * but a quoted field cannot span lines.
+     */
+    public ImportReportDTO importCsv(InputStream csv) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return new ImportReportDTO();
+            }
+            List<String> columns = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header).stream()
+                    .map(String::trim)
+                    .collect(Collectors.toList());
+            return importLines(reader, line -> {
+                List<String> values = splitCsv(line);
+                if (values.size() != columns.size()) {
+                    throw new IllegalArgumentException("Expected " + columns.size() + " columns but found " + values.size());
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    String value = values.get(i).trim();
+                    // Empty cells are left out, so they read as missing rather than as unparsable numbers or dates
+                    if (!value.isEmpty()) {
+                        fields.put(columns.get(i), value);
+                    }
+                }
+                return objectMapper.convertValue(fields, FleetRowDTO.class);
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read fleet: " + e.getMessage());
+        }
+    }
+
+    public ImportReportDTO importJsonLines(InputStream jsonLines) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(jsonLines, StandardCharsets.UTF_8))) {
+            return importLines(reader, line -> objectMapper.readValue(line, FleetRowDTO.class));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read fleet: " + e.getMessage());
+        }
+    }
+
+    private ImportReportDTO importLines(BufferedReader reader, LineParser parser) throws IOException {
+        ImportReportDTO report = new ImportReportDTO();
+        int row = 0;
+        List<Future<List<ParsedRow>>> parsed = null;
+        List<String> lines = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        do {
+            line = reader.readLine();
+            if (line != null && !line.isBlank()) {
+                lines.add(line);
+            }
+            if (!lines.isEmpty() && (lines.size() == CHUNK_SIZE || line == null)) {
+                List<Future<List<ParsedRow>>> parsing = parse(lines, row + 1, parser);
+                row += lines.size();
+                lines = new ArrayList<>(CHUNK_SIZE);
+                // The pool works on this chunk while the previous one is written
+                if (parsed != null) {
+                    importChunk(join(parsed), report);
+                }
+                parsed = parsing;
+            }
+        } while (line != null);
+        if (parsed != null) {
+            importChunk(join(parsed), report);
+        }
+        return report;
+    }
+
+    private List<Future<List<ParsedRow>>> parse(List<String> lines, int firstRow, LineParser parser) {
+        int sliceSize = (lines.size() + PARSE_THREADS - 1) / PARSE_THREADS;
+        List<Future<List<ParsedRow>>> slices = new ArrayList<>(PARSE_THREADS);
+        for (int from = 0; from < lines.size(); from += sliceSize) {
+            int start = from;
+            List<String> slice = lines.subList(from, Math.min(from + sliceSize, lines.size()));
+            slices.add(parsePool.submit(() -> {
+                List<ParsedRow> rows = new ArrayList<>(slice.size());
+                for (int i = 0; i < slice.size(); i++) {
+                    rows.add(parseRow(firstRow + start + i, slice.get(i), parser));
+                }
+                return rows;
+            }));
+        }
+        return slices;
+    }
+
+    private ParsedRow parseRow(int row, String line, LineParser parser) {
+        FleetRowDTO fleetRow;
+        try {
+            fleetRow = parser.parse(line);
+        } catch (Exception e) {
+            return new ParsedRow(row, null, null, "Malformed row: " + e.getMessage());
+        }
+        Set<ConstraintViolation<FleetRowDTO>> violations = validator.validate(fleetRow);
+        if (!violations.isEmpty()) {
+            return new ParsedRow(row, fleetRow, null, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new ParsedRow(row, fleetRow, Car.normalizePlate(fleetRow.getLicensePlate()), null);
+    }
+
+    private static List<ParsedRow> join(List<Future<List<ParsedRow>>> slices) {
+        List<ParsedRow> rows = new ArrayList<>(CHUNK_SIZE);
+        try {
+            for (Future<List<ParsedRow>> slice : slices) {
+                rows.addAll(slice.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Fleet import was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Could not parse fleet: " + e.getCause().getMessage());
+        }
+        return rows;
+    }
+
+    private void importChunk(List<ParsedRow> chunk, ImportReportDTO report) {
+        report.setTotalRows(report.getTotalRows() + chunk.size());
+        List<ImportReportDTO.RowResult> results;
+        try {
+            results = transactionTemplate.execute(status -> writeChunk(chunk));
+        } catch (RuntimeException e) {
+            log.warn("Fleet rows {} to {} were rolled back, importing them one at a time: {}",
+                    chunk.get(0).row(), chunk.get(chunk.size() - 1).row(), e.getMessage());
+            results = new ArrayList<>(chunk.size());
+            for (ParsedRow parsedRow : chunk) {
+                try {
+                    results.addAll(transactionTemplate.execute(status -> writeChunk(List.of(parsedRow))));
+                } catch (RuntimeException rowError) {
+                    results.add(failure(parsedRow.row(), "Could not save car: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage()));
+                }
+            }
+        }
+        results.forEach(result -> add(report, result));
+    }
+
+    private List<ImportReportDTO.RowResult> writeChunk(List<ParsedRow> chunk) {
+        Set<String> plates = new HashSet<>();
+        Set<String> driverLicenses = new HashSet<>();
+        for (ParsedRow parsedRow : chunk) {
+            // Only keys the guard cannot rule out need the database; for a new fleet that is few or none
+            if (parsedRow.error() == null) {
+                if (uniquenessGuard.mightExist(UniquenessGuard.Key.CAR_PLATE, parsedRow.normalizedPlate())) {
+                    plates.add(parsedRow.normalizedPlate());
+                }
+                String driverLicense = parsedRow.fleetRow().getDriverLicense();
+                if (uniquenessGuard.mightExist(UniquenessGuard.Key.DRIVER_LICENSE, driverLicense)) {
+                    driverLicenses.add(driverLicense);
+                }
+            }
+        }
+        // Earlier chunks are committed and in the guard, so this also catches duplicates across the file
+        Set<String> registeredPlates = plates.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(carRepository.findExistingNormalizedPlates(plates));
+        Map<String, VehicleOwner> owners = driverLicenses.isEmpty()
+                ? new HashMap<>()
+                : ownerRepository.findByDriverLicenseIn(driverLicenses).stream()
+                        .collect(Collectors.toMap(VehicleOwner::getDriverLicense, owner -> owner));
+
+        List<ImportReportDTO.RowResult> results = new ArrayList<>(chunk.size());
+        List<Car> imported = new ArrayList<>(chunk.size());
+        for (ParsedRow parsedRow : chunk) {
+            if (parsedRow.error() != null) {
+                results.add(failure(parsedRow.row(), parsedRow.error()));
+                continue;
+            }
+            // Adding the plate marks it taken for the rest of the chunk
+            if (!registeredPlates.add(parsedRow.normalizedPlate())) {
+                results.add(failure(parsedRow.row(), "License plate is already registered"));
+                continue;
+            }
+
+            FleetRowDTO fleetRow = parsedRow.fleetRow();
+            // The first row of a new driver license creates the owner, later rows join it
+            VehicleOwner owner = owners.computeIfAbsent(fleetRow.getDriverLicense(), license -> {
+                VehicleOwner created = new VehicleOwner();
+                created.setDriverLicense(license);
+                created.setFirstName(fleetRow.getFirstName());
+                created.setLastName(fleetRow.getLastName());
+                created.setEmail(fleetRow.getEmail());
+                created.setPhone(fleetRow.getPhone());
+                return ownerRepository.save(created);
+            });
+
+            Car car = new Car();
+            car.setLicensePlate(fleetRow.getLicensePlate());
+            car.setMake(fleetRow.getMake());
+            car.setModel(fleetRow.getModel());
+            car.setYear(fleetRow.getYear());
+            car.setInsuranceProvider(fleetRow.getInsuranceProvider());
+            car.setInsurancePolicyNumber(fleetRow.getInsurancePolicyNumber());
+            car.setInsuranceExpiryDate(fleetRow.getInsuranceExpiryDate());
+            car.setOwner(owner);
+            // Persisting only draws an id from the sequence; the insert waits for the commit
+            car = carRepository.save(car);
+            imported.add(car);
+            results.add(success(parsedRow.row(), car.getId()));
+        }
+
+        if (!imported.isEmpty()) {
+            // Unknown plates may be cached as unregistered
+            plateVerificationCache.invalidateAll(imported.stream()
+                    .map(Car::getNormalizedPlate)
+                    .collect(Collectors.toList()));
+        }
+        return results;
+    }
+
+    private static ImportReportDTO.RowResult success(int row, Long id) {
+        ImportReportDTO.RowResult result = new ImportReportDTO.RowResult();
+        result.setRow(row);
+        result.setImported(true);
+        result.setId(id);
+        return result;
+    }
+
+    private static ImportReportDTO.RowResult failure(int row, String error) {
+        ImportReportDTO.RowResult result = new ImportReportDTO.RowResult();
+        result.setRow(row);
+        result.setError(error);
+        return result;
+    }
+
+    private static void add(ImportReportDTO report, ImportReportDTO.RowResult result) {
+        report.getRows().add(result);
+        if (result.isImported()) {
+            report.setImportedCount(report.getImportedCount() + 1);
+        } else {
+            report.setFailedCount(report.getFailedCount() + 1);
+        }
+    }
+
+    /**
+     * Splits one CSV line on commas outside double quotes; a doubled quote inside quotes is a literal quote.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        FleetRowDTO parse(String line) throws Exception;
+    }
+
+    private record ParsedRow(int row, FleetRowDTO fleetRow, String normalizedPlate, String error) {
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.PlateCandidateDTO;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.listener.CarIndexListener;
+import com.example.vehicleinspection.repository.CarRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of every registered plate that tolerates OCR mistakes. Plates are normalized, then
+ * characters a camera commonly confuses (O/0, I/1, B/8, ...) are folded to one symbol. Folded keys live in a
+ * BK-tree, so all plates within a few edits of a scan are found without comparing against every plate.
+ * Car writes, see {@link CarIndexListener}, update the index once their transaction commits.
+ */
+@Component
+public class FuzzyPlateIndex {
+
+    public static final int MAX_DISTANCE = 2;
+
+    private final CarRepository carRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> platesByCar = new HashMap<>();
+    private final Map<String, Set<Long>> carsByFoldedKey = new HashMap<>();
+    private BkNode root;
+
+    public FuzzyPlateIndex(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Object[]> plates = carRepository.findAllPlates();
+        lock.writeLock().lock();
+        try {
+            platesByCar.clear();
+            carsByFoldedKey.clear();
+            root = null;
+            for (Object[] row : plates) {
+                apply((Long) row[0], (String) row[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long carId, String licensePlate) {
+        Map<Long, String> pending = TransactionHooks.resource(this, () -> {
+            Map<Long, String> plates = new HashMap<>();
+            TransactionHooks.afterCommit(() -> write(plates));
+            return plates;
+        });
+        if (pending != null) {
+            pending.put(carId, licensePlate);
+        } else {
+            write(Collections.singletonMap(carId, licensePlate));
+        }
+    }
+
+    public void remove(Long carId) {
+        put(carId, null);
+    }
+
+    /**
+     * Ranks registered plates by folded edit distance to the scanned plate, then by literal edit distance.
+     */
+    public List<PlateCandidateDTO> candidates(String scannedPlate, int maxDistance, int limit) {
+        String normalized = Car.normalizePlate(scannedPlate);
+        if (normalized == null || normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String folded = fold(normalized);
+        int tolerance = Math.max(0, Math.min(maxDistance, MAX_DISTANCE));
+
+        List<PlateCandidateDTO> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Deque<BkNode> pending = new ArrayDeque<>();
+            if (root != null) {
+                pending.push(root);
+            }
+            while (!pending.isEmpty()) {
+                BkNode node = pending.pop();
+                int distance = editDistance(folded, node.key);
+                if (distance <= tolerance) {
+                    for (Long carId : carsByFoldedKey.getOrDefault(node.key, Set.of())) {
+                        String plate = platesByCar.get(carId);
+                        PlateCandidateDTO candidate = new PlateCandidateDTO();
+                        candidate.setCarId(carId);
+                        candidate.setLicensePlate(plate);
+                        candidate.setDistance(distance);
+                        candidate.setExactDistance(editDistance(normalized, Car.normalizePlate(plate)));
+                        candidates.add(candidate);
+                    }
+                }
+                // Triangle inequality: only children at distance d - tolerance .. d + tolerance can match
+                for (Map.Entry<Integer, BkNode> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= tolerance) {
+                        pending.push(child.getValue());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        candidates.sort(Comparator.comparingInt(PlateCandidateDTO::getDistance)
+                .thenComparingInt(PlateCandidateDTO::getExactDistance)
+                .thenComparing(PlateCandidateDTO::getLicensePlate));
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    /**
+     * Maps each group of look-alike characters to one representative, the digit where there is one.
+     */
+    static String fold(String normalizedPlate) {
+        char[] chars = normalizedPlate.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = switch (chars[i]) {
+                case 'O', 'Q', 'D' -> '0';
+                case 'I', 'L' -> '1';
+                case 'Z' -> '2';
+                case 'S' -> '5';
+                case 'G' -> '6';
+                case 'B' -> '8';
+                default -> chars[i];
+            };
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Applies the plates written by a transaction in one write; a null plate removes the car.
+     */
+    private void write(Map<Long, String> plates) {
+        lock.writeLock().lock();
+        try {
+            plates.forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Long carId, String licensePlate) {
+        String previous = licensePlate == null ? platesByCar.remove(carId) : platesByCar.put(carId, licensePlate);
+        if (previous != null) {
+            String previousKey = fold(Car.normalizePlate(previous));
+            Set<Long> cars = carsByFoldedKey.get(previousKey);
+            if (cars != null) {
+                cars.remove(carId);
+                // The tree node stays behind; a key without cars simply yields no candidates
+                if (cars.isEmpty()) {
+                    carsByFoldedKey.remove(previousKey);
+                }
+            }
+        }
+        if (licensePlate != null) {
+            String key = fold(Car.normalizePlate(licensePlate));
+            carsByFoldedKey.computeIfAbsent(key, k -> new HashSet<>()).add(carId);
+            insert(key);
+        }
+    }
+
+    private void insert(String key) {
+        if (root == null) {
+            root = new BkNode(key);
+            return;
+        }
+        BkNode node = root;
+        while (true) {
+            int distance = editDistance(key, node.key);
+            if (distance == 0) {
+                return;
+            }
+            BkNode child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new BkNode(key));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class BkNode {
+        private final String key;
+        private final Map<Integer, BkNode> children = new HashMap<>(4);
+
+        BkNode(String key) {
+            this.key = key;
+        }
+    }
+}
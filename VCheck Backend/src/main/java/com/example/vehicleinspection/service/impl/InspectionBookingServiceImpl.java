@@ -4,37 +4,69 @@ import com.example.vehicleinspection.model.InspectionBooking;
 import com.example.vehicleinspection.model.VehicleOwner;
 import com.example.vehicleinspection.model.Car;
 import com.example.vehicleinspection.model.InspectionOfficer;
+import com.example.vehicleinspection.dto.AssignmentReportDTO;
+import com.example.vehicleinspection.dto.AvailabilityGridDTO;
+import com.example.vehicleinspection.dto.AvailableSlotDTO;
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.ImportReportDTO;
 import com.example.vehicleinspection.dto.InspectionBookingDTO;
+import com.example.vehicleinspection.dto.InspectionBookingView;
 import com.example.vehicleinspection.repository.*;
 import com.example.vehicleinspection.service.InspectionBookingService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBooking, Long> implements InspectionBookingService {
 
+    private static final int MAX_GRID_DAYS = 31;
+    private static final int NEXT_AVAILABLE_HORIZON_DAYS = 60;
+    private static final int MAX_NEXT_AVAILABLE_RESULTS = 50;
+
     private final InspectionBookingRepository bookingRepository;
     private final VehicleOwnerRepository ownerRepository;
     private final CarRepository carRepository;
     private final InspectionOfficerRepository officerRepository;
+    private final SlotCalendarIndex slotCalendarIndex;
+    private final SlotReservations slotReservations;
+    private final BookingAssignmentEngine assignmentEngine;
+    private final BookingImporter bookingImporter;
+    private final NdjsonExporter ndjsonExporter;
 
     public InspectionBookingServiceImpl(InspectionBookingRepository bookingRepository,
                                        VehicleOwnerRepository ownerRepository,
                                        CarRepository carRepository,
-                                       InspectionOfficerRepository officerRepository) {
-        super(bookingRepository);
+                                       InspectionOfficerRepository officerRepository,
+                                       SlotCalendarIndex slotCalendarIndex,
+                                       SlotReservations slotReservations,
+                                       BookingAssignmentEngine assignmentEngine,
+                                       BookingImporter bookingImporter,
+                                       NdjsonExporter ndjsonExporter) {
+        super(bookingRepository, InspectionBooking::getId, Long::valueOf);
         this.bookingRepository = bookingRepository;
         this.ownerRepository = ownerRepository;
         this.carRepository = carRepository;
         this.officerRepository = officerRepository;
+        this.slotCalendarIndex = slotCalendarIndex;
+        this.slotReservations = slotReservations;
+        this.assignmentEngine = assignmentEngine;
+        this.bookingImporter = bookingImporter;
+        this.ndjsonExporter = ndjsonExporter;
     }
 
     @Override
@@ -53,16 +85,21 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
         if (bookingDTO.getInspectionOfficerId() != null) {
             InspectionOfficer officer = officerRepository.findById(bookingDTO.getInspectionOfficerId())
                     .orElseThrow(() -> new RuntimeException("Officer not found"));
-            if (!isTimeSlotAvailable(officer.getId(), bookingDTO.getScheduledDateTime())) {
-                throw new RuntimeException("Time slot is not available for the selected officer");
-            }
             booking.setInspectionOfficer(officer);
         }
 
         booking = bookingRepository.save(booking);
+        slotReservations.sync(booking);
         return convertToDTO(booking);
     }
 
+    @Override
+    // The importer commits each chunk in its own transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportReportDTO importBookings(InputStream bookingsJson) {
+        return bookingImporter.importBookings(bookingsJson);
+    }
+
     @Override
     public InspectionBookingDTO updateBooking(Long id, InspectionBookingDTO bookingDTO) {
         return bookingRepository.findById(id)
@@ -79,6 +116,7 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
                     }
                     BeanUtils.copyProperties(bookingDTO, booking, "id", "vehicleOwner", "car", "inspectionOfficer");
                     booking = bookingRepository.save(booking);
+                    slotReservations.sync(booking);
                     return convertToDTO(booking);
                 })
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
@@ -91,15 +129,17 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
         InspectionOfficer officer = officerRepository.findById(officerId)
                 .orElseThrow(() -> new RuntimeException("Officer not found"));
 
-        if (!isTimeSlotAvailable(officerId, booking.getScheduledDateTime())) {
-            throw new RuntimeException("Time slot is not available for the selected officer");
-        }
-
         booking.setInspectionOfficer(officer);
         booking = bookingRepository.save(booking);
+        slotReservations.sync(booking);
         return convertToDTO(booking);
     }
 
+    @Override
+    public AssignmentReportDTO autoAssignOfficers(LocalDateTime start, LocalDateTime end) {
+        return assignmentEngine.assignUnassigned(start, end);
+    }
+
     @Override
     public InspectionBookingDTO updateStatus(Long id, InspectionBooking.InspectionStatus status) {
         return bookingRepository.findById(id)
@@ -109,6 +149,7 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
                         booking.setCompletedDateTime(LocalDateTime.now());
                     }
                     booking = bookingRepository.save(booking);
+                    slotReservations.sync(booking);
                     return convertToDTO(booking);
                 })
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
@@ -116,50 +157,81 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
 
     @Override
     public List<InspectionBookingDTO> findByVehicleOwner(Long ownerId) {
-        VehicleOwner owner = ownerRepository.findById(ownerId)
-                .orElseThrow(() -> new RuntimeException("Vehicle owner not found"));
-        return bookingRepository.findByVehicleOwner(owner).stream()
+        if (!ownerRepository.existsById(ownerId)) {
+            throw new RuntimeException("Vehicle owner not found");
+        }
+        return bookingRepository.findViewsByVehicleOwnerId(ownerId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<InspectionBookingDTO> findByInspectionOfficer(Long officerId) {
-        InspectionOfficer officer = officerRepository.findById(officerId)
-                .orElseThrow(() -> new RuntimeException("Officer not found"));
-        return bookingRepository.findByInspectionOfficer(officer).stream()
+        if (!officerRepository.existsById(officerId)) {
+            throw new RuntimeException("Officer not found");
+        }
+        return bookingRepository.findViewsByInspectionOfficerId(officerId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<InspectionBookingDTO> findByStatus(InspectionBooking.InspectionStatus status) {
-        return bookingRepository.findByStatus(status).stream()
+        return bookingRepository.findViewsByStatus(status).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDTO<InspectionBookingDTO> findByStatus(InspectionBooking.InspectionStatus status, String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<InspectionBookingView> rows = cursor == null
+                ? bookingRepository.findViewsByStatusOrderById(status, KeysetCursor.probe(pageSize))
+                : bookingRepository.findViewsByStatusAfterId(status, KeysetCursor.decodeId(cursor), KeysetCursor.probe(pageSize));
+        return KeysetCursor.page(rows, pageSize, view -> KeysetCursor.encode(view.getId()), this::convertToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBookings(OutputStream out) {
+        return ndjsonExporter.export(bookingRepository.streamAllViews(), this::convertToDTO, out);
+    }
+
     @Override
     public List<InspectionBookingDTO> findByDateRange(LocalDateTime start, LocalDateTime end) {
-        return bookingRepository.findByScheduledDateTimeBetween(start, end).stream()
+        return bookingRepository.findViewsByScheduledDateTimeBetween(start, end).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDTO<InspectionBookingDTO> findByDateRange(LocalDateTime start, LocalDateTime end, String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<InspectionBookingView> rows = cursor == null
+                ? bookingRepository.findViewsByScheduledDateTimeBetweenOrderByScheduledDateTime(start, end,
+                        KeysetCursor.probe(pageSize))
+                : bookingRepository.findViewsByScheduledDateTimeBetweenAfter(start, end,
+                        KeysetCursor.decodeDateTime(cursor), KeysetCursor.decodeId(cursor), KeysetCursor.probe(pageSize));
+        return KeysetCursor.page(rows, pageSize,
+                view -> KeysetCursor.encode(view.getScheduledDateTime(), view.getId()), this::convertToDTO);
+    }
+
     @Override
     public List<InspectionBookingDTO> findByOfficerAndDateRange(Long officerId, LocalDateTime start, LocalDateTime end) {
-        InspectionOfficer officer = officerRepository.findById(officerId)
-                .orElseThrow(() -> new RuntimeException("Officer not found"));
-        return bookingRepository.findByInspectionOfficerAndScheduledDateTimeBetween(officer, start, end).stream()
+        if (!officerRepository.existsById(officerId)) {
+            throw new RuntimeException("Officer not found");
+        }
+        return bookingRepository.findViewsByInspectionOfficerIdAndScheduledDateTimeBetween(officerId, start, end).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<InspectionBookingDTO> findByOwnerAndStatus(Long ownerId, InspectionBooking.InspectionStatus status) {
-        VehicleOwner owner = ownerRepository.findById(ownerId)
-                .orElseThrow(() -> new RuntimeException("Vehicle owner not found"));
-        return bookingRepository.findByVehicleOwnerAndStatus(owner, status).stream()
+        if (!ownerRepository.existsById(ownerId)) {
+            throw new RuntimeException("Vehicle owner not found");
+        }
+        return bookingRepository.findViewsByVehicleOwnerIdAndStatus(ownerId, status).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -182,13 +254,10 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
     public InspectionBookingDTO rescheduleBooking(Long id, LocalDateTime newDateTime) {
         return bookingRepository.findById(id)
                 .map(booking -> {
-                    if (booking.getInspectionOfficer() != null &&
-                            !isTimeSlotAvailable(booking.getInspectionOfficer().getId(), newDateTime)) {
-                        throw new RuntimeException("New time slot is not available for the assigned officer");
-                    }
                     booking.setScheduledDateTime(newDateTime);
                     booking.setStatus(InspectionBooking.InspectionStatus.RESCHEDULED);
                     booking = bookingRepository.save(booking);
+                    slotReservations.sync(booking);
                     return convertToDTO(booking);
                 })
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
@@ -199,34 +268,104 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
         bookingRepository.findById(id)
                 .map(booking -> {
                     booking.setStatus(InspectionBooking.InspectionStatus.CANCELLED);
-                    return bookingRepository.save(booking);
+                    booking = bookingRepository.save(booking);
+                    slotReservations.sync(booking);
+                    return booking;
                 })
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
     }
 
+    @Override
+    public void deleteById(Long id) {
+        // SlotReleaseListener frees the slot
+        bookingRepository.deleteById(id);
+    }
+
     @Override
     public boolean isTimeSlotAvailable(Long officerId, LocalDateTime dateTime) {
-        InspectionOfficer officer = officerRepository.findById(officerId)
-                .orElseThrow(() -> new RuntimeException("Officer not found"));
-        LocalDateTime slotStart = dateTime.minusHours(1);
-        LocalDateTime slotEnd = dateTime.plusHours(1);
-        return bookingRepository.findByInspectionOfficerAndScheduledDateTimeBetween(officer, slotStart, slotEnd).isEmpty();
+        if (!slotCalendarIndex.isKnownOfficer(officerId)) {
+            throw new RuntimeException("Officer not found");
+        }
+        return slotCalendarIndex.isSlotFree(officerId, dateTime);
     }
 
     @Override
     public List<LocalDateTime> getAvailableTimeSlots(Long officerId, LocalDateTime date) {
-        List<LocalDateTime> availableSlots = new ArrayList<>();
-        LocalTime startTime = LocalTime.of(9, 0); // Start at 9 AM
-        LocalTime endTime = LocalTime.of(17, 0);  // End at 5 PM
-
-        while (startTime.isBefore(endTime)) {
-            LocalDateTime timeSlot = date.with(startTime);
-            if (isTimeSlotAvailable(officerId, timeSlot)) {
-                availableSlots.add(timeSlot);
+        if (!slotCalendarIndex.isKnownOfficer(officerId)) {
+            throw new RuntimeException("Officer not found");
+        }
+        return slotCalendarIndex.freeSlots(officerId, date.toLocalDate());
+    }
+
+    @Override
+    public AvailabilityGridDTO getAvailabilityGrid(String department, String specialization,
+                                                   LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_GRID_DAYS) {
+            throw new RuntimeException("Availability grid cannot span more than " + MAX_GRID_DAYS + " days");
+        }
+
+        List<InspectionOfficer> officers;
+        if (department != null && specialization != null) {
+            officers = officerRepository.findByDepartmentAndSpecialization(department, specialization);
+        } else if (department != null) {
+            officers = officerRepository.findByDepartment(department);
+        } else if (specialization != null) {
+            officers = officerRepository.findBySpecialization(specialization);
+        } else {
+            officers = officerRepository.findAll();
+        }
+
+        List<LocalDate> days = startDate.datesUntil(endDate.plusDays(1)).collect(Collectors.toList());
+        AvailabilityGridDTO grid = new AvailabilityGridDTO();
+        grid.setStartDate(startDate);
+        grid.setEndDate(endDate);
+        grid.setOfficers(officers.stream()
+                .filter(InspectionOfficer::isAvailable)
+                .map(officer -> {
+                    AvailabilityGridDTO.OfficerAvailability row = new AvailabilityGridDTO.OfficerAvailability();
+                    row.setOfficerId(officer.getId());
+                    row.setOfficerName(officer.getFirstName() + " " + officer.getLastName());
+                    row.setBadgeNumber(officer.getBadgeNumber());
+                    Map<LocalDate, List<LocalDateTime>> freeSlots = new LinkedHashMap<>();
+                    days.forEach(day -> freeSlots.put(day, slotCalendarIndex.freeSlots(officer.getId(), day)));
+                    row.setFreeSlots(freeSlots);
+                    return row;
+                })
+                .collect(Collectors.toList()));
+        return grid;
+    }
+
+    @Override
+    public List<AvailableSlotDTO> findNextAvailableSlots(String specialization, LocalDateTime after, int limit) {
+        int wanted = Math.min(Math.max(limit, 1), MAX_NEXT_AVAILABLE_RESULTS);
+        List<InspectionOfficer> officers = specialization != null
+                ? officerRepository.findBySpecializationAndIsAvailable(specialization, true)
+                : officerRepository.findByIsAvailable(true);
+
+        // Walk slots in time order and stop at the first hits; the horizon bounds the worst case
+        List<AvailableSlotDTO> hits = new ArrayList<>();
+        LocalDate lastDay = after.toLocalDate().plusDays(NEXT_AVAILABLE_HORIZON_DAYS);
+        for (LocalDate day = after.toLocalDate(); !day.isAfter(lastDay) && !officers.isEmpty(); day = day.plusDays(1)) {
+            LocalTime startTime = SlotCalendarIndex.OPENING_TIME;
+            while (startTime.isBefore(SlotCalendarIndex.CLOSING_TIME)) {
+                LocalDateTime timeSlot = day.atTime(startTime);
+                if (timeSlot.isAfter(after)) {
+                    for (InspectionOfficer officer : officers) {
+                        if (slotCalendarIndex.isSlotFree(officer.getId(), timeSlot)) {
+                            hits.add(toAvailableSlot(officer, timeSlot));
+                            if (hits.size() == wanted) {
+                                return hits;
+                            }
+                        }
+                    }
+                }
+                startTime = startTime.plusMinutes(SlotCalendarIndex.SLOT_MINUTES);
             }
-            startTime = startTime.plusHours(1);
         }
-        return availableSlots;
+        return hits;
     }
 
     @Override
@@ -242,6 +381,16 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
         return 1.5;
     }
 
+    private AvailableSlotDTO toAvailableSlot(InspectionOfficer officer, LocalDateTime timeSlot) {
+        AvailableSlotDTO slot = new AvailableSlotDTO();
+        slot.setOfficerId(officer.getId());
+        slot.setOfficerName(officer.getFirstName() + " " + officer.getLastName());
+        slot.setOfficerBadgeNumber(officer.getBadgeNumber());
+        slot.setSpecialization(officer.getSpecialization());
+        slot.setScheduledDateTime(timeSlot);
+        return slot;
+    }
+
     private InspectionBookingDTO convertToDTO(InspectionBooking booking) {
         InspectionBookingDTO dto = new InspectionBookingDTO();
         BeanUtils.copyProperties(booking, dto);
@@ -267,4 +416,32 @@ public class InspectionBookingServiceImpl extends BaseServiceImpl<InspectionBook
         
         return dto;
     }
+
+    private InspectionBookingDTO convertToDTO(InspectionBookingView view) {
+        InspectionBookingDTO dto = new InspectionBookingDTO();
+        dto.setId(view.getId());
+        dto.setScheduledDateTime(view.getScheduledDateTime());
+        dto.setCompletedDateTime(view.getCompletedDateTime());
+        dto.setStatus(view.getStatus());
+        dto.setInspectionType(view.getInspectionType());
+        dto.setNotes(view.getNotes());
+        dto.setResult(view.getResult());
+        dto.setRecommendations(view.getRecommendations());
+        dto.setVehicleOwnerId(view.getVehicleOwnerId());
+        dto.setCarId(view.getCarId());
+        dto.setCarLicensePlate(view.getCarLicensePlate());
+        dto.setInspectionOfficerId(view.getInspectionOfficerId());
+        dto.setOfficerBadgeNumber(view.getOfficerBadgeNumber());
+
+        // Set additional fields
+        dto.setVehicleOwnerName(view.getOwnerFirstName() + " " + view.getOwnerLastName());
+        if (view.getInspectionOfficerId() != null) {
+            dto.setOfficerName(view.getOfficerFirstName() + " " + view.getOfficerLastName());
+        }
+
+        dto.setEstimatedDuration(90L); // 90 minutes estimated duration
+        dto.setRescheduled(view.getStatus() == InspectionBooking.InspectionStatus.RESCHEDULED);
+
+        return dto;
+    }
 }
\ No newline at end of file
@@ -1,18 +1,24 @@
 package com.example.vehicleinspection.service.impl;
 
 import com.example.vehicleinspection.model.InspectionOfficer;
-import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.dto.AssignmentReportDTO;
+import com.example.vehicleinspection.dto.CursorPageDTO;
 import com.example.vehicleinspection.dto.InspectionOfficerDTO;
+import com.example.vehicleinspection.dto.OfficerRatingDTO;
+import com.example.vehicleinspection.dto.OfficerSearchCriteria;
 import com.example.vehicleinspection.repository.InspectionOfficerRepository;
-import com.example.vehicleinspection.repository.InspectionBookingRepository;
 import com.example.vehicleinspection.service.InspectionOfficerService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -20,14 +26,28 @@ import java.util.stream.Collectors;
 @Transactional
 public class InspectionOfficerServiceImpl extends BaseServiceImpl<InspectionOfficer, Long> implements InspectionOfficerService {
 
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final InspectionOfficerRepository officerRepository;
-    private final InspectionBookingRepository bookingRepository;
+    private final SlotCalendarIndex slotCalendarIndex;
+    private final OfficerStats officerStats;
+    private final OfficerSearchIndex officerSearchIndex;
+    private final OfficerRatings officerRatings;
+    private final BookingAssignmentEngine assignmentEngine;
 
     public InspectionOfficerServiceImpl(InspectionOfficerRepository officerRepository,
-                                      InspectionBookingRepository bookingRepository) {
-        super(officerRepository);
+                                      SlotCalendarIndex slotCalendarIndex,
+                                      OfficerStats officerStats,
+                                      OfficerSearchIndex officerSearchIndex,
+                                      OfficerRatings officerRatings,
+                                      BookingAssignmentEngine assignmentEngine) {
+        super(officerRepository, InspectionOfficer::getId, Long::valueOf);
         this.officerRepository = officerRepository;
-        this.bookingRepository = bookingRepository;
+        this.slotCalendarIndex = slotCalendarIndex;
+        this.officerStats = officerStats;
+        this.officerSearchIndex = officerSearchIndex;
+        this.officerRatings = officerRatings;
+        this.assignmentEngine = assignmentEngine;
     }
 
     @Override
@@ -36,6 +56,8 @@ public class InspectionOfficerServiceImpl extends BaseServiceImpl<InspectionOffi
         BeanUtils.copyProperties(officerDTO, officer);
         officer.setInspectionMethods(new ArrayList<>(officerDTO.getInspectionMethods()));
         officer = officerRepository.save(officer);
+        slotCalendarIndex.registerOfficer(officer.getId());
+        officerSearchIndex.put(officer);
         return convertToDTO(officer);
     }
 
@@ -46,11 +68,19 @@ public class InspectionOfficerServiceImpl extends BaseServiceImpl<InspectionOffi
                     BeanUtils.copyProperties(officerDTO, officer, "id", "inspectionMethods");
                     officer.setInspectionMethods(new ArrayList<>(officerDTO.getInspectionMethods()));
                     officer = officerRepository.save(officer);
+                    officerSearchIndex.put(officer);
                     return convertToDTO(officer);
                 })
                 .orElseThrow(() -> new RuntimeException("Officer not found with id: " + id));
     }
 
+    @Override
+    public void deleteById(Long id) {
+        officerRepository.deleteById(id);
+        slotCalendarIndex.removeOfficer(id);
+        officerSearchIndex.remove(id);
+    }
+
     @Override
     public Optional<InspectionOfficerDTO> findByBadgeNumber(String badgeNumber) {
         return officerRepository.findByBadgeNumber(badgeNumber)
@@ -71,6 +101,11 @@ public class InspectionOfficerServiceImpl extends BaseServiceImpl<InspectionOffi
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDTO<InspectionOfficerDTO> findAllOfficers(String cursor, int size) {
+        return findAll(cursor, size, this::convertToDTO);
+    }
+
     @Override
     public List<InspectionOfficerDTO> findAvailableOfficers() {
         return officerRepository.findByIsAvailable(true).stream()
@@ -98,7 +133,15 @@ public class InspectionOfficerServiceImpl extends BaseServiceImpl<InspectionOffi
                 .map(officer -> {
                     officer.setAvailable(isAvailable);
                     officer = officerRepository.save(officer);
-                    return convertToDTO(officer);
+                    officerSearchIndex.put(officer);
+                    List<Long> unassignedBookingIds = null;
+                    if (!isAvailable) {
+                        // Moved in the same transaction, so the officer never goes unavailable with bookings ahead
+                        unassignedBookingIds = assignmentEngine.reassignFrom(id).getUnassignedBookingIds();
+                    }
+                    InspectionOfficerDTO dto = convertToDTO(officer);
+                    dto.setUnassignedBookingIds(unassignedBookingIds);
+                    return dto;
                 })
                 .orElseThrow(() -> new RuntimeException("Officer not found with id: " + id));
     }
@@ -110,6 +153,7 @@ public class InspectionOfficerServiceImpl extends BaseServiceImpl<InspectionOffi
                     if (!officer.getInspectionMethods().contains(method)) {
                         officer.getInspectionMethods().add(method);
                         officer = officerRepository.save(officer);
+                        officerSearchIndex.put(officer);
                     }
                     return convertToDTO(officer);
                 })
@@ -122,33 +166,67 @@ public class InspectionOfficerServiceImpl extends BaseServiceImpl<InspectionOffi
                 .map(officer -> {
                     officer.getInspectionMethods().remove(method);
                     officer = officerRepository.save(officer);
+                    officerSearchIndex.put(officer);
                     return convertToDTO(officer);
                 })
                 .orElseThrow(() -> new RuntimeException("Officer not found with id: " + id));
     }
 
+    @Override
+    public AssignmentReportDTO reassignBookings(Long officerId) {
+        InspectionOfficer officer = officerRepository.findById(officerId)
+                .orElseThrow(() -> new RuntimeException("Officer not found with id: " + officerId));
+        // Retries the bookings left over when the officer went unavailable; an available officer keeps them
+        if (officer.isAvailable()) {
+            throw new RuntimeException("Officer is available, bookings are only reassigned away from unavailable officers");
+        }
+        return assignmentEngine.reassignFrom(officerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InspectionOfficerDTO> searchOfficers(OfficerSearchCriteria criteria) {
+        List<Long> ids = officerSearchIndex.search(criteria);
+        Map<Long, InspectionOfficer> officers = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()));
+            officerRepository.findAllWithInspectionMethodsByIdIn(batch)
+                    .forEach(officer -> officers.put(officer.getId(), officer));
+        }
+        return ids.stream()
+                .map(officers::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<InspectionOfficerDTO> findOfficersAvailableForTimeSlot(LocalDateTime startTime, LocalDateTime endTime) {
         return officerRepository.findByIsAvailable(true).stream()
-                .filter(officer -> isOfficerAvailableForTimeSlot(officer, startTime, endTime))
+                .filter(officer -> slotCalendarIndex.isFree(officer.getId(), startTime, endTime))
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
     public int getCompletedInspectionsCount(Long officerId) {
-        return (int) bookingRepository.findByInspectionOfficer(officerRepository.findById(officerId)
-                .orElseThrow(() -> new RuntimeException("Officer not found with id: " + officerId)))
-                .stream()
-                .filter(booking -> booking.getStatus() == InspectionBooking.InspectionStatus.COMPLETED)
-                .count();
+        if (!officerRepository.existsById(officerId)) {
+            throw new RuntimeException("Officer not found with id: " + officerId);
+        }
+        return officerStats.completedCount(officerId);
     }
 
     @Override
     public double getAverageInspectionRating(Long officerId) {
-        // This would typically come from a rating system in the Analytics entity
-        // For now, returning a placeholder value
-        return 4.5;
+        return officerRatings.average(officerId);
+    }
+
+    @Override
+    public OfficerRatingDTO getRating(Long officerId) {
+        if (!officerRepository.existsById(officerId)) {
+            throw new RuntimeException("Officer not found with id: " + officerId);
+        }
+        return officerRatings.rating(officerId);
     }
 
     @Override
@@ -158,28 +236,16 @@ public class InspectionOfficerServiceImpl extends BaseServiceImpl<InspectionOffi
                 .orElseThrow(() -> new RuntimeException("Officer not found with id: " + officerId));
     }
 
-    private boolean isOfficerAvailableForTimeSlot(InspectionOfficer officer, LocalDateTime startTime, LocalDateTime endTime) {
-        return bookingRepository.findByInspectionOfficerAndScheduledDateTimeBetween(officer, startTime, endTime)
-                .isEmpty();
-    }
-
     private InspectionOfficerDTO convertToDTO(InspectionOfficer officer) {
         InspectionOfficerDTO dto = new InspectionOfficerDTO();
         BeanUtils.copyProperties(officer, dto);
         
-        // Set additional fields
-        dto.setTotalInspectionsCompleted(getCompletedInspectionsCount(officer.getId()));
+        // Workload comes from the live counters, the officer's bookings are never loaded
+        dto.setTotalInspectionsCompleted(officerStats.completedCount(officer.getId()));
         dto.setAverageInspectionRating(getAverageInspectionRating(officer.getId()));
-        dto.setCurrentQueueSize(officer.getInspections().size());
+        dto.setCurrentQueueSize(officerStats.queueSize(officer.getId()));
         dto.setCertifications(new ArrayList<>(officer.getInspectionMethods()));
-        
-        // Count today's inspections
-        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime tomorrow = today.plusDays(1);
-        dto.setInspectionsToday((int) officer.getInspections().stream()
-                .filter(booking -> booking.getScheduledDateTime().isAfter(today) &&
-                        booking.getScheduledDateTime().isBefore(tomorrow))
-                .count());
+        dto.setInspectionsToday(officerStats.scheduledOn(officer.getId(), LocalDate.now()));
         
         return dto;
     }
@@ -0,0 +1,114 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque keyset cursors. A cursor encodes the (sort key, id) of the last row of a page, so the next page
+ * is an index seek past that row instead of an ever growing offset.
+ */
+final class KeysetCursor {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    static int pageSize(int requested) {
+        return requested <= 0 ? DEFAULT_PAGE_SIZE : Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Limits a query to one row more than the page, which tells whether another page follows.
+     */
+    static Pageable probe(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    static String encode(Object id) {
+        return encode(null, id);
+    }
+
+    static String encode(Object sortKey, Object id) {
+        String raw = sortKey == null ? String.valueOf(id) : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String idPart(String cursor) {
+        String raw = decode(cursor);
+        return raw.substring(raw.lastIndexOf(SEPARATOR) + 1);
+    }
+
+    /**
+     * The sort key of a cursor, or null when it was encoded without one.
+     */
+    static String sortKeyPart(String cursor) {
+        String raw = decode(cursor);
+        int separator = raw.lastIndexOf(SEPARATOR);
+        return separator < 0 ? null : raw.substring(0, separator);
+    }
+
+    static Long decodeId(String cursor) {
+        return decodeId(cursor, Long::valueOf);
+    }
+
+    /**
+     * The id of a cursor, read with {@code parser}. Anything the parser rejects is an invalid cursor.
+     */
+    static <I> I decodeId(String cursor, Function<String, I> parser) {
+        try {
+            return parser.apply(idPart(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static LocalDateTime decodeDateTime(String cursor) {
+        String raw = decode(cursor);
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+        try {
+            return LocalDateTime.parse(raw.substring(0, separator));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Builds a page from rows fetched with {@link #probe(int)}, dropping the extra row if present.
+     */
+    static <E, D> CursorPageDTO<D> page(List<E> rows, int pageSize, Function<E, String> cursorOf, Function<E, D> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        CursorPageDTO<D> page = new CursorPageDTO<>();
+        page.setItems(pageRows.stream().map(mapper).collect(Collectors.toList()));
+        page.setSize(pageRows.size());
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            page.setNextCursor(cursorOf.apply(pageRows.get(pageRows.size() - 1)));
+        }
+        return page;
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+}
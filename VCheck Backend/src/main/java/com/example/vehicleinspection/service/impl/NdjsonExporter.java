@@ -0,0 +1,61 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a database stream as newline delimited JSON, one object per line. Rows are mapped and written as
+ * they arrive, and every chunk the persistence context is cleared and the output flushed, so neither the
+ * heap nor the response buffer grows with the number of rows.
+ */
+@Component
+public class NdjsonExporter {
+
+    /** JDBC fetch size of the export queries, and how often the persistence context is cleared. */
+    public static final int CHUNK_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final EntityManager entityManager;
+
+    public NdjsonExporter(ObjectMapper objectMapper, EntityManager entityManager) {
+        this.objectMapper = objectMapper;
+        // Flushing is done per chunk below, not after every row
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Must be called inside a transaction, which keeps the underlying cursor open. The stream is closed
+     * once written, the output stream is left open.
+     */
+    public <E, D> long export(Stream<E> rows, Function<E, D> mapper, OutputStream out) {
+        long written = 0;
+        try (rows; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<E> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, mapper.apply(iterator.next()));
+                generator.writeRaw('\n');
+                if (++written % CHUNK_SIZE == 0) {
+                    // Detaches the rows written so far together with whatever they pulled in
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write export: " + e.getMessage());
+        }
+        return written;
+    }
+}
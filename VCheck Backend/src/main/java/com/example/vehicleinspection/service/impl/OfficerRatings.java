@@ -0,0 +1,327 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.OfficerRatingDTO;
+import com.example.vehicleinspection.model.OfficerRatingSnapshot;
+import com.example.vehicleinspection.model.listener.OfficerRatingListener;
+import com.example.vehicleinspection.repository.AnalyticsRepository;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.OfficerRatingSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Running statistics of every officer's inspection scores: count, mean and variance, kept with Welford's
+ * accumulators so a score can be added or taken back in constant time. Inspection results are reported by
+ * {@link OfficerRatingListener}; their bookings are resolved to officers with one query before the
+ * transaction commits, and the accumulators move once it has. Reads never query.
+ * <p>
+ * The accumulators are written to {@link OfficerRatingSnapshot} rows periodically and on shutdown, together
+ * with the highest analytics id they cover. Startup restores the last snapshot and scans only the results
+ * added after it. That misses changes to results already covered if the application dies before the next
+ * snapshot, results with lower ids that committed after it, and results written without a transaction, so
+ * the accumulators are also rebuilt from every result nightly, see {@link #recompute()}.
+ */
+@Component
+public class OfficerRatings {
+
+    private static final Logger log = LoggerFactory.getLogger(OfficerRatings.class);
+
+    private final AnalyticsRepository analyticsRepository;
+    private final InspectionBookingRepository bookingRepository;
+    private final OfficerRatingSnapshotRepository snapshotRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    // Guarded by itself, together with the two fields below
+    private final Map<Long, Accumulator> accumulators = new HashMap<>();
+    private long throughAnalyticsId;
+    private boolean dirty;
+    // Shared by transactions from just before they commit score changes until those are applied, and held
+    // exclusively while the results are scanned, so a scan sees exactly the results the accumulators took
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    public OfficerRatings(AnalyticsRepository analyticsRepository,
+                          InspectionBookingRepository bookingRepository,
+                          OfficerRatingSnapshotRepository snapshotRepository,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager) {
+        this.analyticsRepository = analyticsRepository;
+        this.bookingRepository = bookingRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        commitLock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Accumulator> restored = new HashMap<>();
+                long snapshotThrough = 0;
+                for (OfficerRatingSnapshot snapshot : snapshotRepository.findAll()) {
+                    restored.put(snapshot.getOfficerId(), new Accumulator(snapshot.getScoreCount(),
+                            snapshot.getMeanScore(), snapshot.getSquaredDeviations()));
+                    if (snapshot.getThroughAnalyticsId() != null) {
+                        snapshotThrough = Math.max(snapshotThrough, snapshot.getThroughAnalyticsId());
+                    }
+                }
+                Scan scan = scan(snapshotThrough, restored);
+                synchronized (accumulators) {
+                    accumulators.clear();
+                    accumulators.putAll(restored);
+                    throughAnalyticsId = scan.through();
+                    dirty = scan.scanned() > 0;
+                }
+                log.info("Restored ratings of {} officers through analytics {}, {} results scanned",
+                        restored.size(), snapshotThrough, scan.scanned());
+            });
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the accumulators from every inspection result, in place of the snapshot and the changes
+     * applied since. Commits carrying score changes wait until the scan is done.
+     */
+    @Scheduled(cron = "${officer.ratings.recompute-cron:0 30 3 * * *}")
+    public void recompute() {
+        commitLock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Accumulator> recomputed = new HashMap<>();
+                Scan scan = scan(0, recomputed);
+                synchronized (accumulators) {
+                    accumulators.clear();
+                    accumulators.putAll(recomputed);
+                    throughAnalyticsId = scan.through();
+                    dirty = true;
+                }
+                log.info("Recomputed ratings of {} officers from {} results", recomputed.size(), scan.scanned());
+            });
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    private Scan scan(long afterAnalyticsId, Map<Long, Accumulator> into) {
+        long through = afterAnalyticsId;
+        int scanned = 0;
+        try (Stream<Object[]> rows = analyticsRepository.streamOfficerScoresAfter(afterAnalyticsId)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                if (row[2] != null) {
+                    into.computeIfAbsent((Long) row[1], id -> new Accumulator()).add((Double) row[2]);
+                }
+                through = Math.max(through, (Long) row[0]);
+                scanned++;
+            }
+        }
+        return new Scan(through, scanned);
+    }
+
+    @Scheduled(fixedDelayString = "${officer.ratings.snapshot-ms:300000}")
+    @PreDestroy
+    public void snapshot() {
+        List<OfficerRatingSnapshot> snapshots = new ArrayList<>();
+        synchronized (accumulators) {
+            if (!dirty) {
+                return;
+            }
+            accumulators.forEach((officerId, accumulator) -> {
+                OfficerRatingSnapshot snapshot = new OfficerRatingSnapshot();
+                snapshot.setOfficerId(officerId);
+                snapshot.setScoreCount(accumulator.count);
+                snapshot.setMeanScore(accumulator.mean);
+                snapshot.setSquaredDeviations(accumulator.squaredDeviations);
+                snapshot.setThroughAnalyticsId(throughAnalyticsId);
+                snapshots.add(snapshot);
+            });
+            dirty = false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Officers whose last score was taken back are dropped along with the old rows
+                snapshotRepository.deleteAllInBatch();
+                snapshotRepository.saveAll(snapshots);
+            });
+        } catch (RuntimeException e) {
+            synchronized (accumulators) {
+                dirty = true;
+            }
+            throw e;
+        }
+    }
+
+    public OfficerRatingDTO rating(Long officerId) {
+        OfficerRatingDTO rating = new OfficerRatingDTO();
+        rating.setOfficerId(officerId);
+        synchronized (accumulators) {
+            Accumulator accumulator = accumulators.get(officerId);
+            if (accumulator != null) {
+                rating.setScoreCount(accumulator.count);
+                rating.setAverageScore(accumulator.mean);
+                rating.setVariance(accumulator.variance());
+            }
+        }
+        rating.setStandardDeviation(Math.sqrt(rating.getVariance()));
+        return rating;
+    }
+
+    public double average(Long officerId) {
+        synchronized (accumulators) {
+            Accumulator accumulator = accumulators.get(officerId);
+            return accumulator != null ? accumulator.mean : 0.0;
+        }
+    }
+
+    /**
+     * Records an inspection result moving from the booking and score it was counted under to its new
+     * ones. A missing booking stands for a result that was not counted, or no longer exists.
+     */
+    public void scoreChanged(Long analyticsId, Long oldBookingId, Double oldScore, Long newBookingId, Double newScore) {
+        ScoreChange change = new ScoreChange(analyticsId, oldBookingId, oldScore, newBookingId, newScore);
+        List<ScoreChange> changes = changes();
+        if (changes != null) {
+            changes.add(change);
+            return;
+        }
+        // Without a transaction the write is already visible, so it is counted straight away
+        commitLock.readLock().lock();
+        try {
+            apply(List.of(change), officersByBooking(List.of(change)));
+        } finally {
+            commitLock.readLock().unlock();
+        }
+    }
+
+    private void apply(List<ScoreChange> changes, Map<Long, Long> officersByBooking) {
+        synchronized (accumulators) {
+            for (ScoreChange change : changes) {
+                Long oldOfficerId = change.oldBookingId() != null ? officersByBooking.get(change.oldBookingId()) : null;
+                if (oldOfficerId != null && change.oldScore() != null) {
+                    Accumulator accumulator = accumulators.get(oldOfficerId);
+                    if (accumulator != null && accumulator.remove(change.oldScore())) {
+                        accumulators.remove(oldOfficerId);
+                    }
+                }
+                Long newOfficerId = change.newBookingId() != null ? officersByBooking.get(change.newBookingId()) : null;
+                if (newOfficerId != null && change.newScore() != null) {
+                    accumulators.computeIfAbsent(newOfficerId, id -> new Accumulator()).add(change.newScore());
+                }
+                if (change.analyticsId() != null) {
+                    throughAnalyticsId = Math.max(throughAnalyticsId, change.analyticsId());
+                }
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Changes of the current transaction, registering the commit hooks on first use. Null outside a
+     * transaction.
+     */
+    private List<ScoreChange> changes() {
+        return TransactionHooks.resource(this, () -> {
+            List<ScoreChange> created = new ArrayList<>();
+            Map<Long, Long> officersByBooking = new HashMap<>();
+            TransactionHooks.beforeCommit(() -> {
+                // Held until the changes are applied, so a scan cannot fall between the commit and the apply
+                commitLock.readLock().lock();
+                TransactionHooks.afterCompletion(commitLock.readLock()::unlock);
+                // Results still in the session only reach the listener when they are flushed
+                entityManager.flush();
+                officersByBooking.putAll(officersByBooking(created));
+            });
+            TransactionHooks.afterCommit(() -> apply(created, officersByBooking));
+            return created;
+        });
+    }
+
+    private Map<Long, Long> officersByBooking(List<ScoreChange> changes) {
+        Set<Long> bookingIds = new HashSet<>();
+        for (ScoreChange change : changes) {
+            if (change.oldBookingId() != null) {
+                bookingIds.add(change.oldBookingId());
+            }
+            if (change.newBookingId() != null) {
+                bookingIds.add(change.newBookingId());
+            }
+        }
+        Map<Long, Long> officersByBooking = new HashMap<>();
+        if (!bookingIds.isEmpty()) {
+            bookingRepository.findOfficerIdsByIdIn(bookingIds)
+                    .forEach(row -> officersByBooking.put((Long) row[0], (Long) row[1]));
+        }
+        return officersByBooking;
+    }
+
+    private record Scan(long through, int scanned) {
+    }
+
+    private record ScoreChange(Long analyticsId, Long oldBookingId, Double oldScore, Long newBookingId,
+                               Double newScore) {
+    }
+
+    /**
+     * Welford's online mean and variance, extended with the inverse step to take a value back out.
+     */
+    private static final class Accumulator {
+        private long count;
+        private double mean;
+        private double squaredDeviations;
+
+        Accumulator() {
+        }
+
+        Accumulator(long count, double mean, double squaredDeviations) {
+            this.count = count;
+            this.mean = mean;
+            this.squaredDeviations = squaredDeviations;
+        }
+
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            squaredDeviations += delta * (value - mean);
+        }
+
+        /**
+         * Takes back a value added earlier and returns whether nothing is left.
+         */
+        boolean remove(double value) {
+            if (count <= 1) {
+                return true;
+            }
+            double previousMean = mean;
+            count--;
+            mean = (previousMean * (count + 1) - value) / count;
+            // Rounding can leave a tiny negative sum once most values are gone
+            squaredDeviations = Math.max(0, squaredDeviations - (value - previousMean) * (value - mean));
+            return false;
+        }
+
+        double variance() {
+            return count > 1 ? squaredDeviations / (count - 1) : 0.0;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.OfficerSearchCriteria;
+import com.example.vehicleinspection.model.InspectionOfficer;
+import com.example.vehicleinspection.repository.InspectionOfficerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over every officer for multi-criteria search. Each officer holds a slot; every inspection
+ * method, department, specialization and experience level keeps a bitset of the slots carrying it, and
+ * one bitset marks the available officers. A search intersects the bitsets of its criteria, so it never
+ * touches the database or the inspection method collection table. Officer writes are applied after their
+ * transaction commits.
+ */
+@Component
+public class OfficerSearchIndex {
+
+    private final InspectionOfficerRepository officerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsByOfficer = new HashMap<>();
+    private final List<OfficerRow> rows = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Map<String, BitSet> methods = new HashMap<>();
+    private final Map<String, BitSet> departments = new HashMap<>();
+    private final Map<String, BitSet> specializations = new HashMap<>();
+    private final Map<Integer, BitSet> experience = new HashMap<>();
+
+    public OfficerSearchIndex(InspectionOfficerRepository officerRepository) {
+        this.officerRepository = officerRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, Set<String>> methodsByOfficer = new HashMap<>();
+        for (Object[] row : officerRepository.findAllInspectionMethodRows()) {
+            methodsByOfficer.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add(key((String) row[1]));
+        }
+        List<Object[]> officerRows = officerRepository.findAllSearchRows();
+
+        lock.writeLock().lock();
+        try {
+            slotsByOfficer.clear();
+            rows.clear();
+            freeSlots.clear();
+            live.clear();
+            available.clear();
+            methods.clear();
+            departments.clear();
+            specializations.clear();
+            experience.clear();
+            for (Object[] row : officerRows) {
+                Long officerId = (Long) row[0];
+                apply(officerId, new OfficerRow(officerId, key((String) row[1]), key((String) row[2]),
+                        (Integer) row[3], (Boolean) row[4], methodsByOfficer.getOrDefault(officerId, Set.of())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(InspectionOfficer officer) {
+        OfficerRow row = rowOf(officer);
+        TransactionHooks.afterCommit(() -> write(row.officerId(), row));
+    }
+
+    public void remove(Long officerId) {
+        TransactionHooks.afterCommit(() -> write(officerId, null));
+    }
+
+    /**
+     * Ids of the officers matching every criterion, in ascending order.
+     */
+    public List<Long> search(OfficerSearchCriteria criteria) {
+        List<Long> officerIds = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet matching = (BitSet) live.clone();
+            if (criteria.getAvailable() != null) {
+                if (criteria.getAvailable()) {
+                    matching.and(available);
+                } else {
+                    matching.andNot(available);
+                }
+            }
+            if (StringUtils.hasText(criteria.getDepartment())) {
+                and(matching, departments.get(key(criteria.getDepartment())));
+            }
+            if (StringUtils.hasText(criteria.getSpecialization())) {
+                and(matching, specializations.get(key(criteria.getSpecialization())));
+            }
+            if (criteria.getInspectionMethods() != null) {
+                for (String method : criteria.getInspectionMethods()) {
+                    if (StringUtils.hasText(method)) {
+                        and(matching, methods.get(key(method)));
+                    }
+                }
+            }
+            if (criteria.getMinExperience() != null && !matching.isEmpty()) {
+                BitSet experienced = new BitSet();
+                experience.forEach((years, slots) -> {
+                    if (years >= criteria.getMinExperience()) {
+                        experienced.or(slots);
+                    }
+                });
+                matching.and(experienced);
+            }
+            for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+                officerIds.add(rows.get(slot).officerId());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Slots are reused, so they do not follow the ids
+        officerIds.sort(null);
+        return officerIds;
+    }
+
+    private static OfficerRow rowOf(InspectionOfficer officer) {
+        Set<String> methodKeys = new HashSet<>();
+        officer.getInspectionMethods().forEach(method -> methodKeys.add(key(method)));
+        return new OfficerRow(officer.getId(), key(officer.getDepartment()), key(officer.getSpecialization()),
+                officer.getYearsOfExperience(), officer.isAvailable(), methodKeys);
+    }
+
+    private void write(Long officerId, OfficerRow row) {
+        lock.writeLock().lock();
+        try {
+            apply(officerId, row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Long officerId, OfficerRow row) {
+        Integer slot = slotsByOfficer.get(officerId);
+        if (slot != null) {
+            int current = slot;
+            OfficerRow previous = rows.get(current);
+            previous.methods().forEach(method -> unpost(methods, method, current));
+            unpost(departments, previous.department(), current);
+            unpost(specializations, previous.specialization(), current);
+            unpost(experience, previous.yearsOfExperience(), current);
+            available.clear(current);
+            if (row == null) {
+                slotsByOfficer.remove(officerId);
+                rows.set(slot, null);
+                live.clear(slot);
+                freeSlots.push(slot);
+                return;
+            }
+        } else if (row == null) {
+            return;
+        } else if (!freeSlots.isEmpty()) {
+            slot = freeSlots.pop();
+            slotsByOfficer.put(officerId, slot);
+        } else {
+            slot = rows.size();
+            rows.add(null);
+            slotsByOfficer.put(officerId, slot);
+        }
+
+        int target = slot;
+        rows.set(target, row);
+        live.set(target);
+        available.set(target, Boolean.TRUE.equals(row.available()));
+        row.methods().forEach(method -> post(methods, method, target));
+        post(departments, row.department(), target);
+        post(specializations, row.specialization(), target);
+        post(experience, row.yearsOfExperience(), target);
+    }
+
+    private static <K> void post(Map<K, BitSet> postings, K value, int slot) {
+        if (value != null) {
+            postings.computeIfAbsent(value, v -> new BitSet()).set(slot);
+        }
+    }
+
+    private static <K> void unpost(Map<K, BitSet> postings, K value, int slot) {
+        if (value == null) {
+            return;
+        }
+        BitSet slots = postings.get(value);
+        if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                postings.remove(value);
+            }
+        }
+    }
+
+    private static void and(BitSet matching, BitSet slots) {
+        if (slots == null) {
+            matching.clear();
+        } else {
+            matching.and(slots);
+        }
+    }
+
+    private static String key(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record OfficerRow(Long officerId, String department, String specialization, Integer yearsOfExperience,
+                              Boolean available, Set<String> methods) {
+    }
+}
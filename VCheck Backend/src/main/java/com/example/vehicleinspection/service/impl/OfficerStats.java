@@ -0,0 +1,125 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.listener.OfficerStatsListener;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live workload of every officer: open bookings in the queue, bookings per day and completed inspections.
+ * Seeded from one grouped query at startup and then moved by booking writes, see
+ * {@link OfficerStatsListener}, once they commit. Counters are {@link LongAdder}s, so concurrent commits
+ * and officer listings never contend on a lock.
+ */
+@Component
+public class OfficerStats {
+
+    static final Set<InspectionBooking.InspectionStatus> QUEUED_STATUSES = EnumSet.of(
+            InspectionBooking.InspectionStatus.SCHEDULED,
+            InspectionBooking.InspectionStatus.RESCHEDULED,
+            InspectionBooking.InspectionStatus.IN_PROGRESS);
+
+    private final InspectionBookingRepository bookingRepository;
+
+    private final Map<Long, LongAdder> queued = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> completed = new ConcurrentHashMap<>();
+    private final Map<OfficerDay, LongAdder> scheduledPerDay = new ConcurrentHashMap<>();
+
+    public OfficerStats(InspectionBookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        queued.clear();
+        completed.clear();
+        scheduledPerDay.clear();
+
+        // Only today onwards is kept per day, earlier days are never asked for again
+        LocalDate today = LocalDate.now();
+        for (Object[] row : bookingRepository.countPerOfficerStatusAndDay()) {
+            Long officerId = (Long) row[0];
+            InspectionBooking.InspectionStatus status = (InspectionBooking.InspectionStatus) row[1];
+            LocalDate day = (LocalDate) row[2];
+            long count = (Long) row[3];
+            if (QUEUED_STATUSES.contains(status)) {
+                adder(queued, officerId).add(count);
+            } else if (status == InspectionBooking.InspectionStatus.COMPLETED) {
+                adder(completed, officerId).add(count);
+            }
+            if (day != null && !day.isBefore(today)) {
+                adder(scheduledPerDay, new OfficerDay(officerId, day)).add(count);
+            }
+        }
+    }
+
+    public int queueSize(Long officerId) {
+        return sum(queued.get(officerId));
+    }
+
+    public int completedCount(Long officerId) {
+        return sum(completed.get(officerId));
+    }
+
+    public int scheduledOn(Long officerId, LocalDate day) {
+        return sum(scheduledPerDay.get(new OfficerDay(officerId, day)));
+    }
+
+    /**
+     * Moves a booking from the officer, status and time it was counted under to its new ones, once the
+     * transaction commits. A missing officer stands for a booking that was not counted.
+     */
+    public void bookingChanged(Long oldOfficerId, InspectionBooking.InspectionStatus oldStatus,
+                               LocalDateTime oldScheduledDateTime, Long newOfficerId,
+                               InspectionBooking.InspectionStatus newStatus, LocalDateTime newScheduledDateTime) {
+        TransactionHooks.afterCommit(() -> {
+            count(oldOfficerId, oldStatus, oldScheduledDateTime, -1);
+            count(newOfficerId, newStatus, newScheduledDateTime, 1);
+        });
+    }
+
+    @Scheduled(cron = "${officer.stats.drop-cron:0 0 0 * * *}")
+    public void dropPastDays() {
+        LocalDate today = LocalDate.now();
+        scheduledPerDay.keySet().removeIf(key -> key.day().isBefore(today));
+    }
+
+    private void count(Long officerId, InspectionBooking.InspectionStatus status,
+                       LocalDateTime scheduledDateTime, int delta) {
+        if (officerId == null) {
+            return;
+        }
+        if (QUEUED_STATUSES.contains(status)) {
+            adder(queued, officerId).add(delta);
+        } else if (status == InspectionBooking.InspectionStatus.COMPLETED) {
+            adder(completed, officerId).add(delta);
+        }
+        if (scheduledDateTime != null && !scheduledDateTime.toLocalDate().isBefore(LocalDate.now())) {
+            adder(scheduledPerDay, new OfficerDay(officerId, scheduledDateTime.toLocalDate())).add(delta);
+        }
+    }
+
+    private static <K> LongAdder adder(Map<K, LongAdder> counters, K key) {
+        return counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static int sum(LongAdder adder) {
+        return adder == null ? 0 : (int) Math.max(0, adder.sum());
+    }
+
+    private record OfficerDay(Long officerId, LocalDate day) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.VehicleOwnerDTO;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Owner compliance lists answered in the database. Owners are selected with EXISTS semi-joins on their
+ * cars and paged by id, and a page of owners is turned into DTOs from the counters kept on the owners,
+ * see {@link OwnerCounters}, plus one query for the vehicle ids, instead of loading every owner's cars.
+ */
+@Component
+public class OwnerComplianceQueries {
+
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private final VehicleOwnerRepository ownerRepository;
+    private final CarRepository carRepository;
+
+    public OwnerComplianceQueries(VehicleOwnerRepository ownerRepository, CarRepository carRepository) {
+        this.ownerRepository = ownerRepository;
+        this.carRepository = carRepository;
+    }
+
+    public CursorPageDTO<VehicleOwnerDTO> findWithInspectionDue(String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<VehicleOwner> owners = ownerRepository.findWithInspectionDueAfter(
+                LocalDate.now(), afterId(cursor), KeysetCursor.probe(pageSize));
+        return page(owners, pageSize);
+    }
+
+    public CursorPageDTO<VehicleOwnerDTO> findWithInsuranceExpired(String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<VehicleOwner> owners = ownerRepository.findWithInsuranceExpiredAfter(
+                LocalDate.now(), afterId(cursor), KeysetCursor.probe(pageSize));
+        return page(owners, pageSize);
+    }
+
+    public List<VehicleOwnerDTO> findAllWithInspectionDue() {
+        return toDTOs(ownerRepository.findWithInspectionDueAfter(LocalDate.now(), 0L, Pageable.unpaged()));
+    }
+
+    public List<VehicleOwnerDTO> findAllWithInsuranceExpired() {
+        return toDTOs(ownerRepository.findWithInsuranceExpiredAfter(LocalDate.now(), 0L, Pageable.unpaged()));
+    }
+
+    /**
+     * Converts a page of owners, keeping their order. The counters of up to {@link #ID_BATCH_SIZE} owners
+     * are read in one query; they are read rather than taken from the entities, which may have been loaded
+     * before the counters last moved. Owners whose pending count is from an earlier day fall back to one
+     * grouped query over their cars.
+     */
+    public List<VehicleOwnerDTO> toDTOs(List<VehicleOwner> owners) {
+        LocalDate today = LocalDate.now();
+        Map<Long, Object[]> summaries = new HashMap<>();
+        Map<Long, List<Long>> vehicleIds = new HashMap<>();
+        List<Long> ownerIds = owners.stream().map(VehicleOwner::getId).collect(Collectors.toList());
+        for (int from = 0; from < ownerIds.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = ownerIds.subList(from, Math.min(from + ID_BATCH_SIZE, ownerIds.size()));
+            List<Long> outdated = new ArrayList<>();
+            for (Object[] row : ownerRepository.findCountersByIds(batch)) {
+                if (today.equals(row[4])) {
+                    summaries.put((Long) row[0], row);
+                } else {
+                    outdated.add((Long) row[0]);
+                }
+            }
+            if (!outdated.isEmpty()) {
+                carRepository.summarizeByOwnerIds(outdated, today).forEach(row -> summaries.put((Long) row[0], row));
+            }
+            carRepository.findIdsByOwnerIds(batch).forEach(row ->
+                    vehicleIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]));
+        }
+
+        List<VehicleOwnerDTO> dtos = new ArrayList<>(owners.size());
+        for (VehicleOwner owner : owners) {
+            VehicleOwnerDTO dto = new VehicleOwnerDTO();
+            BeanUtils.copyProperties(owner, dto);
+            dto.setVehicleIds(vehicleIds.getOrDefault(owner.getId(), new ArrayList<>()));
+            Object[] summary = summaries.get(owner.getId());
+            if (summary != null) {
+                dto.setTotalVehicles(((Number) summary[1]).intValue());
+                dto.setPendingInspections(((Number) summary[2]).intValue());
+                if (summary[3] != null) {
+                    dto.setLastInspectionDate(summary[3].toString());
+                }
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    /**
+     * Converts the owners of an already fetched page, keeping its cursor.
+     */
+    public CursorPageDTO<VehicleOwnerDTO> toDTOs(CursorPageDTO<VehicleOwner> owners) {
+        CursorPageDTO<VehicleOwnerDTO> page = new CursorPageDTO<>();
+        page.setItems(toDTOs(owners.getItems()));
+        page.setSize(owners.getSize());
+        page.setHasMore(owners.isHasMore());
+        page.setNextCursor(owners.getNextCursor());
+        return page;
+    }
+
+    private CursorPageDTO<VehicleOwnerDTO> page(List<VehicleOwner> owners, int pageSize) {
+        CursorPageDTO<VehicleOwner> page = KeysetCursor.page(owners, pageSize,
+                owner -> KeysetCursor.encode(owner.getId()), owner -> owner);
+        return toDTOs(page);
+    }
+
+    private static Long afterId(String cursor) {
+        return cursor == null ? 0L : KeysetCursor.decodeId(cursor);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Recomputes the owner counters kept by {@link OwnerCounters} from the cars themselves, repairing any drift
+ * from writes that bypassed the entity listeners. Runs at startup and just after midnight, when cars fall
+ * due without being written and every pending count has to move to the new day. Owners are updated in id
+ * ranges, one range per transaction, so no run holds many row locks at once.
+ */
+@Component
+public class OwnerCounterReconciler {
+
+    static final long CHUNK_SIZE = 1_000;
+
+    private static final Logger log = LoggerFactory.getLogger(OwnerCounterReconciler.class);
+
+    private final VehicleOwnerRepository ownerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public OwnerCounterReconciler(VehicleOwnerRepository ownerRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.ownerRepository = ownerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${owner.counters.reconcile-cron:0 1 0 * * *}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        long maxId = ownerRepository.findMaxId().orElse(0L);
+        int reconciled = 0;
+        for (long afterId = 0; afterId < maxId; afterId += CHUNK_SIZE) {
+            long from = afterId;
+            Integer updated = transactionTemplate.execute(status ->
+                    ownerRepository.reconcileCounters(from, from + CHUNK_SIZE, today));
+            reconciled += updated != null ? updated : 0;
+        }
+        log.info("Reconciled vehicle counters of {} owners for {}", reconciled, today);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.listener.OwnerCounterListener;
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the vehicle count, pending inspection count and latest inspection date on each owner in step with
+ * its cars. Car writes, see {@link OwnerCounterListener}, are collected per owner for the transaction and
+ * applied as relative updates just before it commits, so concurrent transactions add up instead of
+ * overwriting each other. Anything missed is repaired by {@link OwnerCounterReconciler}.
+ */
+@Component
+public class OwnerCounters {
+
+    private final VehicleOwnerRepository ownerRepository;
+    private final EntityManager entityManager;
+
+    public OwnerCounters(VehicleOwnerRepository ownerRepository, EntityManager entityManager) {
+        this.ownerRepository = ownerRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Records a car moving from its counted state to its new one. A missing owner stands for a car that
+     * did not exist before, or no longer exists.
+     */
+    public void carChanged(Long oldOwnerId, LocalDate oldDueDate, LocalDate oldInspectionDate,
+                           Long newOwnerId, LocalDate newDueDate, LocalDate newInspectionDate) {
+        LocalDate today = LocalDate.now();
+        boolean sameOwner = Objects.equals(oldOwnerId, newOwnerId);
+        if (sameOwner && Car.isInspectionDue(oldDueDate, today) == Car.isInspectionDue(newDueDate, today)
+                && Objects.equals(oldInspectionDate, newInspectionDate)) {
+            return;
+        }
+        Map<Long, Delta> deltas = deltas();
+        if (deltas == null) {
+            // Outside a transaction nothing can be written; the reconciler catches up
+            return;
+        }
+        if (oldOwnerId != null) {
+            Delta delta = deltas.computeIfAbsent(oldOwnerId, id -> new Delta());
+            delta.vehicles--;
+            delta.pendingInspections -= Car.isInspectionDue(oldDueDate, today) ? 1 : 0;
+            // The maximum can only be recomputed once the car no longer holds it
+            if (oldInspectionDate != null && !(sameOwner && newInspectionDate != null
+                    && !newInspectionDate.isBefore(oldInspectionDate))) {
+                delta.latestMayDrop = true;
+            }
+        }
+        if (newOwnerId != null) {
+            Delta delta = deltas.computeIfAbsent(newOwnerId, id -> new Delta());
+            delta.vehicles++;
+            delta.pendingInspections += Car.isInspectionDue(newDueDate, today) ? 1 : 0;
+            if (newInspectionDate != null
+                    && (delta.latestInspectionDate == null || newInspectionDate.isAfter(delta.latestInspectionDate))) {
+                delta.latestInspectionDate = newInspectionDate;
+            }
+        }
+    }
+
+    /**
+     * Flushes pending car writes and applies their counter updates now, so queries later in the
+     * transaction read current counters.
+     */
+    public void flush() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        entityManager.flush();
+        apply();
+    }
+
+    private void apply() {
+        Map<Long, Delta> deltas = deltas();
+        // Updating owners may flush further car writes, which record into the same map
+        while (deltas != null && !deltas.isEmpty()) {
+            List<Map.Entry<Long, Delta>> pending = new ArrayList<>(deltas.entrySet());
+            deltas.clear();
+            for (Map.Entry<Long, Delta> entry : pending) {
+                Long ownerId = entry.getKey();
+                Delta delta = entry.getValue();
+                if (delta.vehicles != 0 || delta.pendingInspections != 0) {
+                    ownerRepository.adjustCounters(ownerId, delta.vehicles, delta.pendingInspections);
+                }
+                if (delta.latestMayDrop) {
+                    ownerRepository.recomputeLatestInspectionDate(ownerId);
+                } else if (delta.latestInspectionDate != null) {
+                    ownerRepository.raiseLatestInspectionDate(ownerId, delta.latestInspectionDate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deltas of the current transaction, registering the commit hook on first use. Null outside a
+     * transaction.
+     */
+    private Map<Long, Delta> deltas() {
+        return TransactionHooks.resource(this, () -> {
+            TransactionHooks.beforeCommit(() -> {
+                // Car writes still in the session only reach the listener when they are flushed
+                entityManager.flush();
+                apply();
+            });
+            return new HashMap<>();
+        });
+    }
+
+    private static final class Delta {
+        private long vehicles;
+        private long pendingInspections;
+        private LocalDate latestInspectionDate;
+        private boolean latestMayDrop;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.OwnerDashboardDTO;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.repository.AnalyticsRepository;
+import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.PublicationRepository;
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Assembles an owner's dashboard from a handful of queries: the owner with its vehicle statistics, its
+ * cars, its upcoming bookings, the unread publication count and its latest inspection results. Everything
+ * read is registered with {@link OwnerDashboardVersions}, so a later write reaches this owner's ETag.
+ */
+@Component
+public class OwnerDashboardQueries {
+
+    static final int UPCOMING_BOOKINGS = 10;
+    static final int RECENT_REPORTS = 5;
+
+    private static final EnumSet<InspectionBooking.InspectionStatus> UPCOMING_STATUSES = EnumSet.of(
+            InspectionBooking.InspectionStatus.SCHEDULED,
+            InspectionBooking.InspectionStatus.RESCHEDULED,
+            InspectionBooking.InspectionStatus.IN_PROGRESS);
+
+    private final VehicleOwnerRepository ownerRepository;
+    private final CarRepository carRepository;
+    private final InspectionBookingRepository bookingRepository;
+    private final AnalyticsRepository analyticsRepository;
+    private final PublicationRepository publicationRepository;
+    private final OwnerComplianceQueries ownerComplianceQueries;
+    private final OwnerDashboardVersions versions;
+
+    public OwnerDashboardQueries(VehicleOwnerRepository ownerRepository,
+                                 CarRepository carRepository,
+                                 InspectionBookingRepository bookingRepository,
+                                 AnalyticsRepository analyticsRepository,
+                                 PublicationRepository publicationRepository,
+                                 OwnerComplianceQueries ownerComplianceQueries,
+                                 OwnerDashboardVersions versions) {
+        this.ownerRepository = ownerRepository;
+        this.carRepository = carRepository;
+        this.bookingRepository = bookingRepository;
+        this.analyticsRepository = analyticsRepository;
+        this.publicationRepository = publicationRepository;
+        this.ownerComplianceQueries = ownerComplianceQueries;
+        this.versions = versions;
+    }
+
+    public OwnerDashboardDTO load(Long ownerId) {
+        // Tracked before reading, so a write racing with the queries below still bumps the version
+        versions.track(ownerId);
+        VehicleOwner owner = ownerRepository.findById(ownerId)
+                .orElseThrow(() -> new RuntimeException("Vehicle owner not found with id: " + ownerId));
+
+        LocalDate today = LocalDate.now();
+        OwnerDashboardDTO dashboard = new OwnerDashboardDTO();
+        dashboard.setOwner(ownerComplianceQueries.toDTOs(List.of(owner)).get(0));
+
+        for (Car car : carRepository.findByOwnerIdOrderById(ownerId)) {
+            versions.rememberCar(car.getId(), ownerId);
+            OwnerDashboardDTO.Vehicle vehicle = new OwnerDashboardDTO.Vehicle();
+            vehicle.setId(car.getId());
+            vehicle.setLicensePlate(car.getLicensePlate());
+            vehicle.setMake(car.getMake());
+            vehicle.setModel(car.getModel());
+            vehicle.setYear(car.getYear());
+            vehicle.setNextInspectionDueDate(car.getNextInspectionDueDate());
+            vehicle.setInspectionDue(Car.isInspectionDue(car.getNextInspectionDueDate(), today));
+            vehicle.setInsuranceExpiryDate(car.getInsuranceExpiryDate());
+            vehicle.setInsuranceValid(Car.isInsuranceValid(car.getInsuranceExpiryDate(), today));
+            dashboard.getVehicles().add(vehicle);
+        }
+
+        // Every booking is remembered, not just the upcoming ones, since any of them can receive a result
+        bookingRepository.findIdsByOwnerId(ownerId).forEach(id -> versions.rememberBooking(id, ownerId));
+        for (Object[] row : bookingRepository.findUpcomingRowsByOwnerId(ownerId, today.atStartOfDay(),
+                UPCOMING_STATUSES, PageRequest.of(0, UPCOMING_BOOKINGS))) {
+            OwnerDashboardDTO.UpcomingBooking booking = new OwnerDashboardDTO.UpcomingBooking();
+            booking.setId((Long) row[0]);
+            booking.setCarId((Long) row[1]);
+            booking.setLicensePlate((String) row[2]);
+            booking.setScheduledDateTime((LocalDateTime) row[3]);
+            booking.setStatus(row[4] == null ? null : row[4].toString());
+            booking.setInspectionType((String) row[5]);
+            dashboard.getUpcomingBookings().add(booking);
+        }
+
+        dashboard.setUnreadNotifications(publicationRepository.countUnreadByOwnerId(ownerId));
+
+        for (Object[] row : analyticsRepository.findRecentReportRowsByOwnerId(ownerId,
+                PageRequest.of(0, RECENT_REPORTS))) {
+            OwnerDashboardDTO.RecentReport report = new OwnerDashboardDTO.RecentReport();
+            report.setId((Long) row[0]);
+            report.setBookingId((Long) row[1]);
+            report.setLicensePlate((String) row[2]);
+            report.setInspectionDate((LocalDateTime) row[3]);
+            report.setPassed((Boolean) row[4]);
+            report.setScore(((Number) row[5]).doubleValue());
+            report.setDefectsFound(((Number) row[6]).intValue());
+            report.setReportStatus((String) row[7]);
+            dashboard.getRecentReports().add(report);
+        }
+        return dashboard;
+    }
+}
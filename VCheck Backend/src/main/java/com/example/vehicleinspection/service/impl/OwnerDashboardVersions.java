@@ -0,0 +1,159 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.model.listener.OwnerVersionListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory version of each owner's dashboard data, so an ETag can be checked without a query. Writes of
+ * an owner, or of its cars, bookings, inspection results or publications bump the version, see
+ * {@link OwnerVersionListener}.
+ * <p>
+ * Once an owner's ETag has been handed out, the owner is tracked: the cars and bookings its dashboard was
+ * built from are remembered with their owner, so moving a car away and writing an inspection result, which
+ * only knows its booking, still reach the right owner. At most {@link #MAX_TRACKED_OWNERS} owners are
+ * tracked; the least recently used one is dropped with its cars and bookings. Versions come from one
+ * sequence, so an owner tracked again never gets back a version it handed out before, and its old ETags
+ * stop matching.
+ */
+@Component
+public class OwnerDashboardVersions {
+
+    static final int MAX_TRACKED_OWNERS = 10_000;
+
+    // Versions restart with the application, so ETags carry an id of this run
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    // Versions of the tracked owners, least recently used first
+    private final Map<Long, Long> versions = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            if (size() <= MAX_TRACKED_OWNERS) {
+                return false;
+            }
+            forget(eldest.getKey());
+            return true;
+        }
+    };
+    private final Map<Long, Long> ownersByCar = new HashMap<>();
+    private final Map<Long, Long> ownersByBooking = new HashMap<>();
+    private final Map<Long, Set<Long>> carsByOwner = new HashMap<>();
+    private final Map<Long, Set<Long>> bookingsByOwner = new HashMap<>();
+    private long sequence;
+
+    /**
+     * ETag of the owner's dashboard: the version, and the day, since due dates and upcoming bookings move
+     * with it. Starts tracking the owner.
+     */
+    public String eTag(Long ownerId) {
+        long version;
+        synchronized (versions) {
+            version = versions.computeIfAbsent(ownerId, id -> ++sequence);
+        }
+        return "\"" + runId + "-" + ownerId + "-" + version + "-" + LocalDate.now() + "\"";
+    }
+
+    /**
+     * Starts tracking the owner. Call before reading the dashboard data, so writes made while it is read
+     * still bump the version.
+     */
+    public void track(Long ownerId) {
+        synchronized (versions) {
+            versions.computeIfAbsent(ownerId, id -> ++sequence);
+        }
+    }
+
+    public void rememberCar(Long carId, Long ownerId) {
+        moved(ownersByCar, carsByOwner, carId, ownerId);
+    }
+
+    public void rememberBooking(Long bookingId, Long ownerId) {
+        moved(ownersByBooking, bookingsByOwner, bookingId, ownerId);
+    }
+
+    public void ownerChanged(Long ownerId) {
+        bumpTwice(() -> bump(ownerId));
+    }
+
+    public void carChanged(Long carId, Long ownerId) {
+        Long previousOwnerId = moved(ownersByCar, carsByOwner, carId, ownerId);
+        bumpTwice(() -> bump(previousOwnerId, ownerId));
+    }
+
+    public void bookingChanged(Long bookingId, Long ownerId) {
+        Long previousOwnerId = moved(ownersByBooking, bookingsByOwner, bookingId, ownerId);
+        bumpTwice(() -> bump(previousOwnerId, ownerId));
+    }
+
+    public void inspectionResultChanged(Long bookingId) {
+        Long ownerId;
+        synchronized (versions) {
+            ownerId = ownersByBooking.get(bookingId);
+        }
+        bumpTwice(() -> bump(ownerId));
+    }
+
+    /**
+     * Records the entity's current owner if that owner is tracked, and returns the owner it was remembered
+     * under before.
+     */
+    private Long moved(Map<Long, Long> owners, Map<Long, Set<Long>> byOwner, Long id, Long ownerId) {
+        synchronized (versions) {
+            if (id == null) {
+                return null;
+            }
+            Long previousOwnerId = owners.remove(id);
+            if (previousOwnerId != null) {
+                Set<Long> ids = byOwner.get(previousOwnerId);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    byOwner.remove(previousOwnerId);
+                }
+            }
+            if (ownerId != null && versions.containsKey(ownerId)) {
+                owners.put(id, ownerId);
+                byOwner.computeIfAbsent(ownerId, owner -> new HashSet<>()).add(id);
+            }
+            return previousOwnerId;
+        }
+    }
+
+    // Runs under the monitor, as the owner is dropped from the versions
+    private void forget(Long ownerId) {
+        Set<Long> carIds = carsByOwner.remove(ownerId);
+        if (carIds != null) {
+            carIds.forEach(ownersByCar::remove);
+        }
+        Set<Long> bookingIds = bookingsByOwner.remove(ownerId);
+        if (bookingIds != null) {
+            bookingIds.forEach(ownersByBooking::remove);
+        }
+    }
+
+    private void bump(Long... ownerIds) {
+        synchronized (versions) {
+            for (Long ownerId : ownerIds) {
+                // An untracked owner gets a new version anyway once it is tracked again
+                if (ownerId != null && versions.containsKey(ownerId)) {
+                    versions.put(ownerId, ++sequence);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bumps now, and once more after the transaction ends, so a dashboard read between the write and its
+     * commit is not kept under the new version.
+     */
+    private static void bumpTwice(Runnable bump) {
+        bump.run();
+        TransactionHooks.afterCompletion(bump);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.PlateVerificationDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Near cache of plate verification results, keyed on the normalized plate. Unknown plates are cached too,
+ * so repeated scans of an unregistered car do not hit the database either. Entries are evicted least
+ * recently used beyond {@link #MAX_ENTRIES}, after {@link #TIME_TO_LIVE}, and at midnight, since insurance
+ * validity and inspection due status depend on the date.
+ */
+@Component
+public class PlateVerificationCache {
+
+    static final int MAX_ENTRIES = 10_000;
+    static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Bumped by every invalidation, so a load that raced with a write is not cached
+    private long generation;
+
+    /**
+     * Returns the cached result for the plate, or loads and caches it. Results are shared between callers
+     * and must not be modified.
+     */
+    public PlateVerificationDTO get(String normalizedPlate, Function<String, PlateVerificationDTO> loader) {
+        long loadGeneration;
+        synchronized (entries) {
+            Entry entry = entries.get(normalizedPlate);
+            if (entry != null && entry.isFresh()) {
+                return entry.result();
+            }
+            loadGeneration = generation;
+        }
+
+        PlateVerificationDTO result = loader.apply(normalizedPlate);
+        synchronized (entries) {
+            if (loadGeneration == generation) {
+                entries.put(normalizedPlate, Entry.of(result));
+            }
+        }
+        return result;
+    }
+
+    public void invalidate(String normalizedPlate) {
+        if (normalizedPlate == null) {
+            return;
+        }
+        evict(normalizedPlate);
+        // Once more after the write is visible, in case a scan reloaded the old state in between
+        TransactionHooks.afterCompletion(() -> evict(normalizedPlate));
+    }
+
+    public void invalidateAll(Collection<String> normalizedPlates) {
+        List<String> plates = List.copyOf(normalizedPlates);
+        evictAll(plates);
+        TransactionHooks.afterCompletion(() -> evictAll(plates));
+    }
+
+    public void invalidateOwner(Long ownerId) {
+        evictOwner(ownerId);
+        TransactionHooks.afterCompletion(() -> evictOwner(ownerId));
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            generation++;
+        }
+    }
+
+    private void evict(String normalizedPlate) {
+        synchronized (entries) {
+            entries.remove(normalizedPlate);
+            generation++;
+        }
+    }
+
+    private void evictAll(Collection<String> normalizedPlates) {
+        synchronized (entries) {
+            normalizedPlates.forEach(entries::remove);
+            generation++;
+        }
+    }
+
+    private void evictOwner(Long ownerId) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> ownerId.equals(entry.result().getOwnerId()));
+            generation++;
+        }
+    }
+
+    private record Entry(PlateVerificationDTO result, LocalDate day, long expiresAt) {
+        static Entry of(PlateVerificationDTO result) {
+            return new Entry(result, LocalDate.now(), System.nanoTime() + TIME_TO_LIVE.toNanos());
+        }
+
+        boolean isFresh() {
+            return System.nanoTime() - expiresAt < 0 && day.equals(LocalDate.now());
+        }
+    }
+}
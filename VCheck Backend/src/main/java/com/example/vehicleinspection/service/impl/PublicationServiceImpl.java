@@ -24,7 +24,7 @@ public class PublicationServiceImpl extends BaseServiceImpl<Publication, Long> i
 
     public PublicationServiceImpl(PublicationRepository publicationRepository,
                                  VehicleOwnerRepository vehicleOwnerRepository) {
-        super(publicationRepository);
+        super(publicationRepository, Publication::getId, Long::valueOf);
         this.publicationRepository = publicationRepository;
         this.vehicleOwnerRepository = vehicleOwnerRepository;
     }
@@ -0,0 +1,240 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.InspectionOfficerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory occupancy calendar of every officer, one minute-resolution bitmap per officer and day.
+ * Booking writes keep it in sync, so availability checks never have to query the database.
+ */
+@Component
+public class SlotCalendarIndex {
+
+    public static final LocalTime OPENING_TIME = LocalTime.of(9, 0);
+    public static final LocalTime CLOSING_TIME = LocalTime.of(17, 0);
+    public static final int SLOT_MINUTES = 60;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final InspectionBookingRepository bookingRepository;
+    private final InspectionOfficerRepository officerRepository;
+
+    private final Set<Long> knownOfficers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Map<LocalDate, DayCalendar>> calendars = new ConcurrentHashMap<>();
+    private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+
+    public SlotCalendarIndex(InspectionBookingRepository bookingRepository,
+                             InspectionOfficerRepository officerRepository) {
+        this.bookingRepository = bookingRepository;
+        this.officerRepository = officerRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        knownOfficers.clear();
+        calendars.clear();
+        placements.clear();
+
+        knownOfficers.addAll(officerRepository.findAllIds());
+        // Past days can no longer be booked, so only today onwards is worth holding in memory
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        for (Object[] row : bookingRepository.findSlotPlacementsFrom(from, InspectionBooking.InspectionStatus.CANCELLED)) {
+            apply((Long) row[0], Placement.of((Long) row[1], (LocalDateTime) row[2]));
+        }
+    }
+
+    public boolean isKnownOfficer(Long officerId) {
+        return knownOfficers.contains(officerId);
+    }
+
+    public void registerOfficer(Long officerId) {
+        knownOfficers.add(officerId);
+    }
+
+    public void removeOfficer(Long officerId) {
+        knownOfficers.remove(officerId);
+        calendars.remove(officerId);
+        placements.values().removeIf(placement -> placement.officerId().equals(officerId));
+    }
+
+    /**
+     * A slot is free when the officer has nothing booked within one slot length either side of it.
+     */
+    public boolean isSlotFree(Long officerId, LocalDateTime slot) {
+        return isFree(officerId, slot.minusMinutes(SLOT_MINUTES), slot.plusMinutes(SLOT_MINUTES), null);
+    }
+
+    /**
+     * Same as {@link #isSlotFree(Long, LocalDateTime)}, but the given booking does not count as a conflict,
+     * so a booking can be moved within its own window.
+     */
+    public boolean isSlotFree(Long officerId, LocalDateTime slot, Long ignoredBookingId) {
+        Placement ignored = ignoredBookingId != null ? placements.get(ignoredBookingId) : null;
+        if (ignored != null && !ignored.officerId().equals(officerId)) {
+            ignored = null;
+        }
+        return isFree(officerId, slot.minusMinutes(SLOT_MINUTES), slot.plusMinutes(SLOT_MINUTES), ignored);
+    }
+
+    public boolean isPlaced(Long bookingId, Long officerId, LocalDateTime dateTime) {
+        return Placement.of(officerId, dateTime).equals(placements.get(bookingId));
+    }
+
+    /**
+     * Lists the bookable slot start times of one officer on one day, within opening hours.
+     */
+    public List<LocalDateTime> freeSlots(Long officerId, LocalDate day) {
+        List<LocalDateTime> slots = new ArrayList<>();
+        LocalTime startTime = OPENING_TIME;
+
+        while (startTime.isBefore(CLOSING_TIME)) {
+            LocalDateTime timeSlot = day.atTime(startTime);
+            if (isSlotFree(officerId, timeSlot)) {
+                slots.add(timeSlot);
+            }
+            startTime = startTime.plusMinutes(SLOT_MINUTES);
+        }
+        return slots;
+    }
+
+    /**
+     * Returns true when the officer has no booking between {@code start} and {@code end}, both inclusive.
+     */
+    public boolean isFree(Long officerId, LocalDateTime start, LocalDateTime end) {
+        return isFree(officerId, start, end, null);
+    }
+
+    private boolean isFree(Long officerId, LocalDateTime start, LocalDateTime end, Placement ignored) {
+        Map<LocalDate, DayCalendar> days = calendars.get(officerId);
+        if (days == null) {
+            return true;
+        }
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(end.toLocalDate()); day = day.plusDays(1)) {
+            DayCalendar calendar = days.get(day);
+            if (calendar == null) {
+                continue;
+            }
+            int from = day.equals(start.toLocalDate()) ? minuteOfDay(start) : 0;
+            int to = day.equals(end.toLocalDate()) ? minuteOfDay(end) : MINUTES_PER_DAY - 1;
+            int ignoredMinute = ignored != null && ignored.day().equals(day) ? ignored.minute() : -1;
+            if (calendar.anyBetween(from, to, ignoredMinute)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the booking to wherever its current officer, time and status put it. The change is visible
+     * immediately and rolled back together with the surrounding transaction.
+     */
+    public void sync(InspectionBooking booking) {
+        if (occupies(booking)) {
+            place(booking.getId(), booking.getInspectionOfficer().getId(), booking.getScheduledDateTime());
+        } else {
+            release(booking.getId());
+        }
+    }
+
+    public void place(Long bookingId, Long officerId, LocalDateTime dateTime) {
+        Placement previous = apply(bookingId, Placement.of(officerId, dateTime));
+        undoOnRollback(bookingId, previous);
+    }
+
+    public void release(Long bookingId) {
+        Placement previous = apply(bookingId, null);
+        undoOnRollback(bookingId, previous);
+    }
+
+    static boolean occupies(InspectionBooking booking) {
+        return booking.getInspectionOfficer() != null
+                && booking.getScheduledDateTime() != null
+                && booking.getStatus() != InspectionBooking.InspectionStatus.CANCELLED;
+    }
+
+    private Placement apply(Long bookingId, Placement target) {
+        Placement previous = target == null ? placements.remove(bookingId) : placements.put(bookingId, target);
+        if (previous != null) {
+            Map<LocalDate, DayCalendar> days = calendars.get(previous.officerId());
+            if (days != null) {
+                DayCalendar calendar = days.get(previous.day());
+                if (calendar != null) {
+                    calendar.remove(previous.minute());
+                }
+            }
+        }
+        if (target != null) {
+            calendars.computeIfAbsent(target.officerId(), id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(target.day(), day -> new DayCalendar())
+                    .add(target.minute());
+        }
+        return previous;
+    }
+
+    /**
+     * Records how to put the booking back if the transaction rolls back.
+     */
+    private void undoOnRollback(Long bookingId, Placement previous) {
+        TransactionHooks.afterRollback(() -> apply(bookingId, previous));
+    }
+
+    private static int minuteOfDay(LocalDateTime dateTime) {
+        return dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    private record Placement(Long officerId, LocalDate day, int minute) {
+        static Placement of(Long officerId, LocalDateTime dateTime) {
+            return new Placement(officerId, dateTime.toLocalDate(), minuteOfDay(dateTime));
+        }
+    }
+
+    private static final class DayCalendar {
+        private final BitSet occupied = new BitSet(MINUTES_PER_DAY);
+        // Extra bookings sharing an already occupied minute, so releasing one does not free the others
+        private final Map<Integer, Integer> stacked = new HashMap<>();
+
+        synchronized void add(int minute) {
+            if (occupied.get(minute)) {
+                stacked.merge(minute, 1, Integer::sum);
+            } else {
+                occupied.set(minute);
+            }
+        }
+
+        synchronized void remove(int minute) {
+            Integer extra = stacked.get(minute);
+            if (extra == null) {
+                occupied.clear(minute);
+            } else if (extra == 1) {
+                stacked.remove(minute);
+            } else {
+                stacked.put(minute, extra - 1);
+            }
+        }
+
+        synchronized boolean anyBetween(int from, int to, int ignoredMinute) {
+            int next = occupied.nextSetBit(from);
+            if (next >= 0 && next == ignoredMinute && !stacked.containsKey(next)) {
+                next = occupied.nextSetBit(next + 1);
+            }
+            return next >= 0 && next <= to;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.SlotClaim;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.InspectionOfficerRepository;
+import com.example.vehicleinspection.repository.SlotClaimRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Claims officer slots for bookings. Before its first claim for an officer, a transaction locks the
+ * officer's row until it ends and reads the bookings already committed for that officer. Claims are then
+ * checked against those and against the in-memory slot calendar, so an officer's bookings stay an hour
+ * apart even when several instances share one database, while claims for different officers never wait
+ * on each other. The unique (officer, slot) constraint on {@link SlotClaim} backs this up.
+ */
+@Component
+@Transactional
+public class SlotReservations {
+
+    private static final int CHECK_CHUNK_SIZE = 500;
+
+    private final SlotClaimRepository slotClaimRepository;
+    private final InspectionOfficerRepository officerRepository;
+    private final InspectionBookingRepository bookingRepository;
+    private final SlotCalendarIndex slotCalendarIndex;
+
+    public SlotReservations(SlotClaimRepository slotClaimRepository,
+                            InspectionOfficerRepository officerRepository,
+                            InspectionBookingRepository bookingRepository,
+                            SlotCalendarIndex slotCalendarIndex) {
+        this.slotClaimRepository = slotClaimRepository;
+        this.officerRepository = officerRepository;
+        this.bookingRepository = bookingRepository;
+        this.slotCalendarIndex = slotCalendarIndex;
+    }
+
+    /**
+     * Brings the booking's claim in line with its current officer, time and status. Throws when the
+     * officer is already booked around that time; the caller's transaction then rolls back.
+     */
+    public void sync(InspectionBooking booking) {
+        if (!SlotCalendarIndex.occupies(booking)) {
+            release(booking.getId());
+            return;
+        }
+        if (!tryClaim(booking.getId(), booking.getInspectionOfficer().getId(), booking.getScheduledDateTime())) {
+            throw new RuntimeException("Time slot is not available for the selected officer");
+        }
+    }
+
+    /**
+     * Claims the slot for the booking, moving any claim it already holds. Returns false, without writing
+     * anything, when the officer is already booked around that time.
+     */
+    public boolean tryClaim(Long bookingId, Long officerId, LocalDateTime dateTime) {
+        if (slotCalendarIndex.isPlaced(bookingId, officerId, dateTime)) {
+            return true;
+        }
+        return claim(bookingId, officerId, dateTime, false);
+    }
+
+    /**
+     * Variant of {@link #tryClaim} for bookings that hold no claim row. The claim row is only queued until
+     * {@link #flushClaims}, so bulk callers check a whole batch against the table and write it in JDBC
+     * batches. Claims still queued when the transaction commits are written unchecked.
+     */
+    public boolean tryClaimNew(Long bookingId, Long officerId, LocalDateTime dateTime) {
+        return claim(bookingId, officerId, dateTime, true);
+    }
+
+    /**
+     * Locks the officers' rows for the rest of the transaction and reads the bookings committed for them.
+     * Bulk callers lock all their candidates up front, in one statement that takes them in id order, so
+     * two batches never wait on each other in a cycle. Officers the transaction already holds are skipped.
+     */
+    public void lockOfficers(Collection<Long> officerIds) {
+        LockedOfficers locked = lockedOfficers();
+        List<Long> ids = officerIds.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !locked.officers.contains(id))
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+        officerRepository.lockAllByIdIn(ids);
+        locked.officers.addAll(ids);
+        // Bookings of other instances only show up here; the calendar holds those written by this one
+        for (Object[] row : bookingRepository.findSlotPlacementsByOfficerIdInFrom(ids, LocalDate.now().atStartOfDay(),
+                InspectionBooking.InspectionStatus.CANCELLED)) {
+            locked.add((Long) row[0], (Long) row[1], (LocalDateTime) row[2]);
+        }
+    }
+
+    private boolean claim(Long bookingId, Long officerId, LocalDateTime dateTime, boolean newBooking) {
+        lockOfficers(List.of(officerId));
+        LockedOfficers locked = lockedOfficers();
+        if (!slotCalendarIndex.isSlotFree(officerId, dateTime, bookingId)
+                || !locked.isSlotFree(officerId, dateTime, bookingId)) {
+            return false;
+        }
+
+        SlotClaim claim = new SlotClaim();
+        claim.setOfficerId(officerId);
+        claim.setSlotStart(dateTime.truncatedTo(ChronoUnit.HOURS));
+        claim.setBookingId(bookingId);
+        if (newBooking) {
+            locked.queued.put(bookingId, claim);
+        } else {
+            slotClaimRepository.deleteByBookingId(bookingId);
+            locked.queued.remove(bookingId);
+            // Nothing conflicting is committed while the officer is locked, so the insert can wait for the flush
+            locked.claims.put(bookingId, slotClaimRepository.save(claim));
+        }
+        locked.forget(bookingId);
+        slotCalendarIndex.place(bookingId, officerId, dateTime);
+        return true;
+    }
+
+    /**
+     * Deletes the claim rows of many bookings in one statement, leaving their calendar placements. Bulk
+     * moves call this first and then claim each booking again with {@link #tryClaimNew}, which moves the
+     * placement and lets the new rows go out in JDBC batches.
+     */
+    public void deleteClaims(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            slotClaimRepository.deleteByBookingIdIn(bookingIds);
+            LockedOfficers locked = lockedOfficers();
+            locked.claims.keySet().removeAll(bookingIds);
+            locked.queued.keySet().removeAll(bookingIds);
+        }
+    }
+
+    /**
+     * Writes the claims queued by {@link #tryClaimNew} and flushes them, checking them first with one query
+     * per chunk. A claim that would collide with a row the calendar never saw, such as one left behind by a
+     * booking changed outside the services, is not written, so the flush cannot fail on it. Returns the
+     * bookings whose claims were left out; the caller decides what becomes of them, for example with
+     * {@link #abandon}.
+     */
+    public Set<Long> flushClaims() {
+        LockedOfficers locked = lockedOfficers();
+        List<SlotClaim> queued = new ArrayList<>(locked.queued.values());
+        locked.queued.clear();
+        Set<Long> collided = new HashSet<>();
+        List<SlotClaim> accepted = new ArrayList<>(queued.size());
+        for (int from = 0; from < queued.size(); from += CHECK_CHUNK_SIZE) {
+            List<SlotClaim> chunk = queued.subList(from, Math.min(from + CHECK_CHUNK_SIZE, queued.size()));
+            Set<Long> claimedBookings = new HashSet<>();
+            Set<Slot> claimedSlots = new HashSet<>();
+            for (SlotClaim row : slotClaimRepository.findCollisionCandidates(
+                    chunk.stream().map(SlotClaim::getBookingId).collect(Collectors.toSet()),
+                    chunk.stream().map(SlotClaim::getOfficerId).collect(Collectors.toSet()),
+                    chunk.stream().map(SlotClaim::getSlotStart).collect(Collectors.toSet()))) {
+                claimedBookings.add(row.getBookingId());
+                claimedSlots.add(new Slot(row.getOfficerId(), row.getSlotStart()));
+            }
+            for (SlotClaim claim : chunk) {
+                if (claimedBookings.contains(claim.getBookingId())
+                        || claimedSlots.contains(new Slot(claim.getOfficerId(), claim.getSlotStart()))) {
+                    collided.add(claim.getBookingId());
+                } else {
+                    accepted.add(claim);
+                }
+            }
+        }
+        // Saved only once every chunk is checked, so the checks do not flush them one chunk at a time
+        for (SlotClaim claim : accepted) {
+            locked.claims.put(claim.getBookingId(), slotClaimRepository.save(claim));
+        }
+        slotClaimRepository.flush();
+        return collided;
+    }
+
+    /**
+     * Drops the claims this transaction made for bookings it then could not update, because someone else
+     * changed them in the meantime, and puts the bookings back in the calendar as the database has them.
+     */
+    public void abandon(Collection<Long> bookingIds) {
+        LockedOfficers locked = lockedOfficers();
+        for (Long bookingId : bookingIds) {
+            locked.queued.remove(bookingId);
+            SlotClaim claim = locked.claims.remove(bookingId);
+            if (claim != null) {
+                slotClaimRepository.delete(claim);
+            }
+        }
+        Set<Long> deleted = new HashSet<>(bookingIds);
+        for (InspectionBooking booking : bookingRepository.findAllById(bookingIds)) {
+            deleted.remove(booking.getId());
+            slotCalendarIndex.sync(booking);
+        }
+        deleted.forEach(slotCalendarIndex::release);
+    }
+
+    public void release(Long bookingId) {
+        slotClaimRepository.deleteByBookingId(bookingId);
+        LockedOfficers locked = lockedOfficers();
+        locked.claims.remove(bookingId);
+        locked.queued.remove(bookingId);
+        locked.forget(bookingId);
+        slotCalendarIndex.release(bookingId);
+    }
+
+    /**
+     * Drops a deleted booking from the calendar and from this transaction's claims. The claim row goes
+     * with the booking through its foreign key, so nothing is queried here, which keeps it safe to call
+     * while the delete is flushed.
+     */
+    public void removed(Long bookingId) {
+        LockedOfficers locked = lockedOfficers();
+        locked.claims.remove(bookingId);
+        locked.queued.remove(bookingId);
+        locked.forget(bookingId);
+        slotCalendarIndex.release(bookingId);
+    }
+
+    /**
+     * Officers locked by the current transaction.
+     */
+    private LockedOfficers lockedOfficers() {
+        return TransactionHooks.resource(this, () -> {
+            LockedOfficers locked = new LockedOfficers();
+            // The unique constraints still have the last word on claims nobody flushed
+            TransactionHooks.beforeCommit(() -> slotClaimRepository.saveAll(locked.queued.values()));
+            return locked;
+        });
+    }
+
+    private record Slot(Long officerId, LocalDateTime slotStart) {
+    }
+
+    private static final class LockedOfficers {
+        private final Set<Long> officers = new HashSet<>();
+        // Claim rows persisted by this transaction, by booking
+        private final Map<Long, SlotClaim> claims = new HashMap<>();
+        // Claims of tryClaimNew waiting for flushClaims, by booking
+        private final Map<Long, SlotClaim> queued = new LinkedHashMap<>();
+        // Committed bookings of the locked officers, dropped once this transaction claims or releases them
+        private final Map<Long, NavigableMap<LocalDateTime, Set<Long>>> bookingsByOfficer = new HashMap<>();
+        private final Map<Long, Long> officerByBooking = new HashMap<>();
+        private final Map<Long, LocalDateTime> timeByBooking = new HashMap<>();
+
+        void add(Long bookingId, Long officerId, LocalDateTime dateTime) {
+            bookingsByOfficer.computeIfAbsent(officerId, id -> new TreeMap<>())
+                    .computeIfAbsent(dateTime, time -> new HashSet<>())
+                    .add(bookingId);
+            officerByBooking.put(bookingId, officerId);
+            timeByBooking.put(bookingId, dateTime);
+        }
+
+        void forget(Long bookingId) {
+            Long officerId = officerByBooking.remove(bookingId);
+            if (officerId == null) {
+                return;
+            }
+            LocalDateTime dateTime = timeByBooking.remove(bookingId);
+            NavigableMap<LocalDateTime, Set<Long>> bookings = bookingsByOfficer.get(officerId);
+            Set<Long> atTime = bookings.get(dateTime);
+            atTime.remove(bookingId);
+            if (atTime.isEmpty()) {
+                bookings.remove(dateTime);
+            }
+        }
+
+        boolean isSlotFree(Long officerId, LocalDateTime slot, Long ignoredBookingId) {
+            NavigableMap<LocalDateTime, Set<Long>> bookings = bookingsByOfficer.get(officerId);
+            if (bookings == null) {
+                return true;
+            }
+            return bookings.subMap(slot.minusMinutes(SlotCalendarIndex.SLOT_MINUTES), true,
+                            slot.plusMinutes(SlotCalendarIndex.SLOT_MINUTES), true).values().stream()
+                    .flatMap(Set::stream)
+                    .allMatch(bookingId -> bookingId.equals(ignoredBookingId));
+        }
+    }
+}
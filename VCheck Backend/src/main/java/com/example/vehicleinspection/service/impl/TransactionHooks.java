@@ -0,0 +1,160 @@
+package com.example.vehicleinspection.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Work to run when the current transaction ends, and state that lives as long as the transaction. All of
+ * a transaction's hooks share one synchronization, so a transaction writing thousands of rows registers
+ * one rather than one per row. Hooks added while others run, for example by a flush in a before-commit
+ * hook, run in the same phase. While the transaction is suspended its hooks and resources are unbound,
+ * so an inner transaction, or code running without one, starts with its own.
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Runs the action once the transaction commits, or straight away outside a transaction.
+     */
+    static void afterCommit(Runnable action) {
+        Hooks hooks = hooks();
+        if (hooks == null) {
+            action.run();
+        } else {
+            hooks.afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Runs the action once the transaction has committed or rolled back. Outside a transaction there is
+     * nothing to wait for and the action is dropped.
+     */
+    static void afterCompletion(Runnable action) {
+        Hooks hooks = hooks();
+        if (hooks != null) {
+            hooks.afterCompletion.add(action);
+        }
+    }
+
+    /**
+     * Runs the action if the transaction rolls back. Rollback actions run newest first, so undoing
+     * several changes to the same thing ends at its state before the transaction.
+     */
+    static void afterRollback(Runnable action) {
+        Hooks hooks = hooks();
+        if (hooks != null) {
+            hooks.afterRollback.push(action);
+        }
+    }
+
+    /**
+     * Runs the action just before the transaction commits, while it can still write. Outside a
+     * transaction the action is dropped.
+     */
+    static void beforeCommit(Runnable action) {
+        Hooks hooks = hooks();
+        if (hooks != null) {
+            hooks.beforeCommit.add(action);
+        }
+    }
+
+    /**
+     * The transaction's resource under {@code key}, created on first use and unbound when the transaction
+     * completes. The factory may register hooks of its own. Null outside a transaction.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T resource(Object key, Supplier<T> factory) {
+        Hooks hooks = hooks();
+        if (hooks == null) {
+            return null;
+        }
+        T resource = (T) TransactionSynchronizationManager.getResource(key);
+        if (resource == null) {
+            resource = factory.get();
+            TransactionSynchronizationManager.bindResource(key, resource);
+            hooks.resourceKeys.add(key);
+        }
+        return resource;
+    }
+
+    private static Hooks hooks() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Hooks hooks = (Hooks) TransactionSynchronizationManager.getResource(Hooks.class);
+        if (hooks == null) {
+            hooks = new Hooks();
+            TransactionSynchronizationManager.bindResource(Hooks.class, hooks);
+            TransactionSynchronizationManager.registerSynchronization(hooks);
+        }
+        return hooks;
+    }
+
+    private static final class Hooks implements TransactionSynchronization {
+        private final List<Runnable> beforeCommit = new ArrayList<>();
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private final List<Runnable> afterCompletion = new ArrayList<>();
+        private final Deque<Runnable> afterRollback = new ArrayDeque<>();
+        private final List<Object> resourceKeys = new ArrayList<>();
+        private final Map<Object, Object> suspendedResources = new LinkedHashMap<>();
+
+        @Override
+        public void suspend() {
+            for (Object key : resourceKeys) {
+                Object resource = TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                if (resource != null) {
+                    suspendedResources.put(key, resource);
+                }
+            }
+            TransactionSynchronizationManager.unbindResourceIfPossible(Hooks.class);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(Hooks.class, this);
+            suspendedResources.forEach(TransactionSynchronizationManager::bindResource);
+            suspendedResources.clear();
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            runAll(beforeCommit);
+        }
+
+        @Override
+        public void afterCommit() {
+            runAll(afterCommit);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                if (status == STATUS_ROLLED_BACK) {
+                    afterRollback.forEach(Runnable::run);
+                }
+                runAll(afterCompletion);
+            } finally {
+                // Last, so an action that registers another hook still finds these hooks rather than binding new ones
+                resourceKeys.forEach(TransactionSynchronizationManager::unbindResourceIfPossible);
+                TransactionSynchronizationManager.unbindResourceIfPossible(Hooks.class);
+            }
+        }
+
+        private static void runAll(List<Runnable> actions) {
+            // Indexed, as running one action may add more
+            for (int i = 0; i < actions.size(); i++) {
+                actions.get(i).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.listener.UniqueKeyListener;
+import com.example.vehicleinspection.repository.AdminRepository;
+import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bloom filters over the unique keys that registration and imports check: admin usernames and emails,
+ * normalized car plates and driver licenses. A key the filter has never seen is certainly not taken, so
+ * the lookup query is skipped; anything else falls through to the unique-indexed query.
+ * <p>
+ * Keys are added as their rows are written, see {@link UniqueKeyListener}, even before the transaction
+ * commits: a rolled back insert only leaves a false positive, which costs one query. A rebuild also takes
+ * the keys of transactions that were open when it started, since they may commit after it read the table.
+ * A Bloom filter cannot forget a key, so deletes are counted instead, and a filter that has gone stale or
+ * grown past the size it was built for is rebuilt from the database in the background.
+ */
+@Component
+public class UniquenessGuard {
+
+    public enum Key {
+        ADMIN_USERNAME,
+        ADMIN_EMAIL,
+        CAR_PLATE,
+        DRIVER_LICENSE
+    }
+
+    static final int MIN_CAPACITY = 10_000;
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Map<Key, Supplier<List<String>>> loaders = new EnumMap<>(Key.class);
+    private final Map<Key, Filter> filters = new EnumMap<>(Key.class);
+    // Keys added while a filter is being rebuilt, replayed into the new one before it replaces the old
+    private final Map<Key, List<String>> addedDuringRebuild = new EnumMap<>(Key.class);
+    // Keys added by each open transaction. Its rows may commit after a rebuild has read the table
+    private final Set<Map<Key, List<String>>> openJournals = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public UniquenessGuard(AdminRepository adminRepository,
+                           CarRepository carRepository,
+                           VehicleOwnerRepository ownerRepository) {
+        loaders.put(Key.ADMIN_USERNAME, adminRepository::findAllUsernames);
+        loaders.put(Key.ADMIN_EMAIL, adminRepository::findAllEmails);
+        loaders.put(Key.CAR_PLATE, () -> carRepository.findAllPlates().stream()
+                .map(row -> Car.normalizePlate((String) row[1]))
+                .collect(Collectors.toList()));
+        loaders.put(Key.DRIVER_LICENSE, ownerRepository::findAllDriverLicenses);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        for (Key key : Key.values()) {
+            rebuild(key);
+        }
+    }
+
+    /**
+     * Rebuilds the filters that have taken more keys than they were sized for, or seen many deletes.
+     */
+    @Scheduled(fixedDelayString = "${uniqueness.guard.refresh-ms:300000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        for (Key key : Key.values()) {
+            boolean stale;
+            synchronized (filters) {
+                Filter filter = filters.get(key);
+                stale = filter == null || filter.isStale();
+            }
+            if (stale) {
+                rebuild(key);
+            }
+        }
+    }
+
+    /**
+     * False only when no row can hold the value; true means the database has to be asked.
+     */
+    public boolean mightExist(Key key, String value) {
+        if (value == null) {
+            return false;
+        }
+        synchronized (filters) {
+            Filter filter = filters.get(key);
+            // Until the first build nothing can be ruled out
+            return filter == null || filter.mightContain(value);
+        }
+    }
+
+    public void add(Key key, String value) {
+        if (value == null) {
+            return;
+        }
+        Map<Key, List<String>> journal = journal();
+        synchronized (filters) {
+            Filter filter = filters.get(key);
+            if (filter != null) {
+                filter.add(value);
+            }
+            List<String> pending = addedDuringRebuild.get(key);
+            if (pending != null) {
+                pending.add(value);
+            }
+            if (journal != null) {
+                journal.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+            }
+        }
+    }
+
+    /**
+     * Records that a row holding a key was deleted. The key stays in the filter until the next rebuild.
+     */
+    public void removed(Key key) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (filters) {
+                Filter filter = filters.get(key);
+                if (filter != null) {
+                    filter.removals++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Keys added by the current transaction, kept until it completes. Null outside a transaction.
+     */
+    private Map<Key, List<String>> journal() {
+        return TransactionHooks.resource(this, () -> {
+            Map<Key, List<String>> journal = new EnumMap<>(Key.class);
+            synchronized (filters) {
+                openJournals.add(journal);
+            }
+            TransactionHooks.afterCompletion(() -> {
+                synchronized (filters) {
+                    openJournals.remove(journal);
+                }
+            });
+            return journal;
+        });
+    }
+
+    private void rebuild(Key key) {
+        synchronized (filters) {
+            // Transactions still open may commit after the loader's read, so their keys go in as well
+            List<String> pending = new ArrayList<>();
+            for (Map<Key, List<String>> journal : openJournals) {
+                pending.addAll(journal.getOrDefault(key, List.of()));
+            }
+            addedDuringRebuild.put(key, pending);
+        }
+        try {
+            List<String> values = loaders.get(key).get();
+            Filter filter = new Filter(Math.max(MIN_CAPACITY, values.size() * 2));
+            values.forEach(filter::add);
+            synchronized (filters) {
+                addedDuringRebuild.get(key).forEach(filter::add);
+                filters.put(key, filter);
+            }
+        } finally {
+            synchronized (filters) {
+                addedDuringRebuild.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Bloom filter sized for {@code capacity} keys at {@link #FALSE_POSITIVE_RATE}. Probe positions come from
+     * two 64-bit hashes combined as h1 + i * h2. Guarded by the enclosing map's monitor.
+     */
+    private static final class Filter {
+        private final int capacity;
+        private final int bitCount;
+        private final int hashCount;
+        private final BitSet bits;
+        private int insertions;
+        private int removals;
+
+        Filter(int capacity) {
+            this.capacity = capacity;
+            this.bitCount = (int) Math.ceil(-capacity * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.bits = new BitSet(bitCount);
+        }
+
+        boolean isStale() {
+            return insertions > capacity || removals > capacity / 2;
+        }
+
+        void add(String value) {
+            long h1 = hash(value, 0xcbf29ce484222325L);
+            long h2 = hash(value, 0x84222325cbf29ce4L) | 1;
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                int index = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if (!bits.get(index)) {
+                    bits.set(index);
+                    changed = true;
+                }
+            }
+            // Re-adding a key sets no new bit, so updates of a row do not count against the capacity
+            if (changed) {
+                insertions++;
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value, 0xcbf29ce484222325L);
+            long h2 = hash(value, 0x84222325cbf29ce4L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                if (!bits.get((int) Long.remainderUnsigned(h1 + i * h2, bitCount))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * FNV-1a over the UTF-8 bytes, finished with the SplitMix64 mixer to spread the bits.
+         */
+        private static long hash(String value, long seed) {
+            long hash = seed;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+            return hash ^ (hash >>> 31);
+        }
+    }
+}
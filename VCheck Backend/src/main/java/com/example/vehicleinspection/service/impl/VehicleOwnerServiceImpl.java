@@ -2,18 +2,20 @@ package com.example.vehicleinspection.service.impl;
 
 import com.example.vehicleinspection.model.VehicleOwner;
 import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.dto.CursorPageDTO;
+import com.example.vehicleinspection.dto.OwnerDashboardDTO;
 import com.example.vehicleinspection.dto.VehicleOwnerDTO;
 import com.example.vehicleinspection.repository.VehicleOwnerRepository;
 import com.example.vehicleinspection.repository.CarRepository;
 import com.example.vehicleinspection.service.VehicleOwnerService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -21,11 +23,28 @@ public class VehicleOwnerServiceImpl extends BaseServiceImpl<VehicleOwner, Long>
 
     private final VehicleOwnerRepository vehicleOwnerRepository;
     private final CarRepository carRepository;
-
-    public VehicleOwnerServiceImpl(VehicleOwnerRepository vehicleOwnerRepository, CarRepository carRepository) {
-        super(vehicleOwnerRepository);
+    private final PlateVerificationCache plateVerificationCache;
+    private final UniquenessGuard uniquenessGuard;
+    private final OwnerComplianceQueries ownerComplianceQueries;
+    private final OwnerDashboardQueries ownerDashboardQueries;
+    private final OwnerDashboardVersions ownerDashboardVersions;
+    private final OwnerCounters ownerCounters;
+
+    public VehicleOwnerServiceImpl(VehicleOwnerRepository vehicleOwnerRepository, CarRepository carRepository,
+                                   PlateVerificationCache plateVerificationCache, UniquenessGuard uniquenessGuard,
+                                   OwnerComplianceQueries ownerComplianceQueries,
+                                   OwnerDashboardQueries ownerDashboardQueries,
+                                   OwnerDashboardVersions ownerDashboardVersions,
+                                   OwnerCounters ownerCounters) {
+        super(vehicleOwnerRepository, VehicleOwner::getId, Long::valueOf);
         this.vehicleOwnerRepository = vehicleOwnerRepository;
         this.carRepository = carRepository;
+        this.plateVerificationCache = plateVerificationCache;
+        this.uniquenessGuard = uniquenessGuard;
+        this.ownerComplianceQueries = ownerComplianceQueries;
+        this.ownerDashboardQueries = ownerDashboardQueries;
+        this.ownerDashboardVersions = ownerDashboardVersions;
+        this.ownerCounters = ownerCounters;
     }
 
     @Override
@@ -42,6 +61,7 @@ public class VehicleOwnerServiceImpl extends BaseServiceImpl<VehicleOwner, Long>
                 .map(owner -> {
                     BeanUtils.copyProperties(ownerDTO, owner, "id");
                     owner = vehicleOwnerRepository.save(owner);
+                    plateVerificationCache.invalidateOwner(id);
                     return convertToDTO(owner);
                 })
                 .orElseThrow(() -> new RuntimeException("Vehicle owner not found with id: " + id));
@@ -61,35 +81,49 @@ public class VehicleOwnerServiceImpl extends BaseServiceImpl<VehicleOwner, Long>
 
     @Override
     public List<VehicleOwnerDTO> findAllVehicleOwners() {
-        return vehicleOwnerRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return ownerComplianceQueries.toDTOs(vehicleOwnerRepository.findAll());
+    }
+
+    @Override
+    public CursorPageDTO<VehicleOwnerDTO> findAllVehicleOwners(String cursor, int size) {
+        return ownerComplianceQueries.toDTOs(findAll(cursor, size));
+    }
+
+    @Override
+    public void deleteVehicleOwner(Long id) {
+        deleteById(id);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        plateVerificationCache.invalidateOwner(id);
+        super.deleteById(id);
     }
 
     @Override
     public boolean existsByDriverLicense(String driverLicense) {
-        return vehicleOwnerRepository.existsByDriverLicense(driverLicense);
+        return uniquenessGuard.mightExist(UniquenessGuard.Key.DRIVER_LICENSE, driverLicense)
+                && vehicleOwnerRepository.existsByDriverLicense(driverLicense);
     }
 
     @Override
     public List<VehicleOwnerDTO> findOwnersWithPendingInspections() {
-        // Implementation would require a query to find owners with vehicles that need inspection
-        return vehicleOwnerRepository.findAll().stream()
-                .filter(owner -> owner.getVehicles().stream()
-                        .anyMatch(car -> car.getLastInspectionDate() == null ||
-                                car.getLastInspectionDate().isBefore(LocalDate.now().minusMonths(12))))
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return ownerComplianceQueries.findAllWithInspectionDue();
+    }
+
+    @Override
+    public CursorPageDTO<VehicleOwnerDTO> findOwnersWithPendingInspections(String cursor, int size) {
+        return ownerComplianceQueries.findWithInspectionDue(cursor, size);
     }
 
     @Override
     public List<VehicleOwnerDTO> findOwnersWithExpiredInsurance() {
-        return vehicleOwnerRepository.findAll().stream()
-                .filter(owner -> owner.getVehicles().stream()
-                        .anyMatch(car -> car.getInsuranceExpiryDate() != null &&
-                                car.getInsuranceExpiryDate().isBefore(LocalDate.now())))
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return ownerComplianceQueries.findAllWithInsuranceExpired();
+    }
+
+    @Override
+    public CursorPageDTO<VehicleOwnerDTO> findOwnersWithExpiredInsurance(String cursor, int size) {
+        return ownerComplianceQueries.findWithInsuranceExpired(cursor, size);
     }
 
     @Override
@@ -99,6 +133,7 @@ public class VehicleOwnerServiceImpl extends BaseServiceImpl<VehicleOwner, Long>
         Car car = carRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + vehicleId));
 
+        plateVerificationCache.invalidate(Car.normalizePlate(car.getLicensePlate()));
         car.setOwner(owner);
         owner.getVehicles().add(car);
         owner = vehicleOwnerRepository.save(owner);
@@ -111,44 +146,47 @@ public class VehicleOwnerServiceImpl extends BaseServiceImpl<VehicleOwner, Long>
                 .orElseThrow(() -> new RuntimeException("Vehicle owner not found with id: " + ownerId));
         
         owner.getVehicles().removeIf(car -> car.getId().equals(vehicleId));
+        plateVerificationCache.invalidateOwner(ownerId);
         owner = vehicleOwnerRepository.save(owner);
         return convertToDTO(owner);
     }
 
     @Override
     public int getVehicleCount(Long ownerId) {
-        return vehicleOwnerRepository.findById(ownerId)
-                .map(owner -> owner.getVehicles().size())
-                .orElse(0);
+        ownerCounters.flush();
+        return vehicleOwnerRepository.findVehicleCount(ownerId)
+                .orElseGet(() -> carRepository.countByOwnerId(ownerId))
+                .intValue();
     }
 
     @Override
     public int getPendingInspectionsCount(Long ownerId) {
-        return (int) vehicleOwnerRepository.findById(ownerId)
-                .map(owner -> owner.getVehicles().stream()
-                        .filter(car -> car.getLastInspectionDate() == null ||
-                                car.getLastInspectionDate().isBefore(LocalDate.now().minusMonths(12)))
-                        .count())
-                .orElse(0L);
+        ownerCounters.flush();
+        LocalDate today = LocalDate.now();
+        // Counted for an earlier day until the reconciler has run, so counted from the cars instead
+        return vehicleOwnerRepository.findPendingInspectionCount(ownerId, today)
+                .orElseGet(() -> carRepository.countInspectionDueByOwnerId(ownerId, today))
+                .intValue();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OwnerDashboardDTO getDashboard(Long ownerId) {
+        return ownerDashboardQueries.load(ownerId);
+    }
+
+    /**
+     * Answered from memory, so a conditional request that ends in 304 opens no connection.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getDashboardETag(Long ownerId) {
+        return ownerDashboardVersions.eTag(ownerId);
     }
 
     private VehicleOwnerDTO convertToDTO(VehicleOwner owner) {
-        VehicleOwnerDTO dto = new VehicleOwnerDTO();
-        BeanUtils.copyProperties(owner, dto);
-        
-        dto.setVehicleIds(owner.getVehicles().stream()
-                .map(Car::getId)
-                .collect(Collectors.toList()));
-        
-        dto.setTotalVehicles(owner.getVehicles().size());
-        dto.setPendingInspections(getPendingInspectionsCount(owner.getId()));
-        
-        owner.getVehicles().stream()
-                .map(Car::getLastInspectionDate)
-                .filter(date -> date != null)
-                .max(LocalDate::compareTo)
-                .ifPresent(date -> dto.setLastInspectionDate(date.toString()));
-        
-        return dto;
+        // Apply the counters first so the DTO counts vehicles added or removed in this transaction
+        ownerCounters.flush();
+        return ownerComplianceQueries.toDTOs(List.of(owner)).get(0);
     }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.TimelineEntryDTO;
+import com.example.vehicleinspection.model.listener.TimelineInvalidator;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Near cache of each car's merged history, newest first, keyed on the car id. Entries are evicted least
+ * recently used beyond {@link #MAX_ENTRIES} and whenever a booking, inspection result or publication of
+ * the car changes, see {@link TimelineInvalidator}. Inspection results only know their booking, so the
+ * cache also remembers which car each cached booking belongs to.
+ */
+@Component
+public class VehicleTimelineCache {
+
+    static final int MAX_ENTRIES = 2_000;
+
+    private final Map<Long, Long> carsByBooking = new HashMap<>();
+    private final Map<Long, List<TimelineEntryDTO>> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, List<TimelineEntryDTO>> eldest) {
+            if (size() <= MAX_ENTRIES) {
+                return false;
+            }
+            forgetBookings(eldest.getValue());
+            return true;
+        }
+    };
+
+    // Bumped by every invalidation, so a load that raced with a write is not cached
+    private long generation;
+
+    /**
+     * Returns the cached timeline of the car, or loads and caches it. Timelines are shared between callers
+     * and must not be modified.
+     */
+    public List<TimelineEntryDTO> get(Long carId, Function<Long, List<TimelineEntryDTO>> loader) {
+        long loadGeneration;
+        synchronized (entries) {
+            List<TimelineEntryDTO> timeline = entries.get(carId);
+            if (timeline != null) {
+                return timeline;
+            }
+            loadGeneration = generation;
+        }
+
+        List<TimelineEntryDTO> timeline = List.copyOf(loader.apply(carId));
+        synchronized (entries) {
+            if (loadGeneration == generation) {
+                entries.put(carId, timeline);
+                for (TimelineEntryDTO entry : timeline) {
+                    if (TimelineEntryDTO.BOOKING.equals(entry.getType())) {
+                        carsByBooking.put(entry.getId(), carId);
+                    }
+                }
+            }
+        }
+        return timeline;
+    }
+
+    public void invalidateCar(Long carId) {
+        if (carId == null) {
+            return;
+        }
+        evictCar(carId);
+        // Once more after the write is visible, in case a request reloaded the old state in between
+        TransactionHooks.afterCompletion(() -> evictCar(carId));
+    }
+
+    public void invalidateBooking(Long bookingId) {
+        if (bookingId == null) {
+            return;
+        }
+        evictBooking(bookingId);
+        TransactionHooks.afterCompletion(() -> evictBooking(bookingId));
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            carsByBooking.clear();
+            generation++;
+        }
+    }
+
+    private void evictCar(Long carId) {
+        synchronized (entries) {
+            List<TimelineEntryDTO> timeline = entries.remove(carId);
+            if (timeline != null) {
+                forgetBookings(timeline);
+            }
+            generation++;
+        }
+    }
+
+    private void evictBooking(Long bookingId) {
+        synchronized (entries) {
+            Long carId = carsByBooking.get(bookingId);
+            if (carId != null) {
+                evictCar(carId);
+            } else {
+                generation++;
+            }
+        }
+    }
+
+    private void forgetBookings(List<TimelineEntryDTO> timeline) {
+        for (TimelineEntryDTO entry : timeline) {
+            if (TimelineEntryDTO.BOOKING.equals(entry.getType())) {
+                carsByBooking.remove(entry.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.InspectionBookingDTO;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.InspectionOfficer;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.InspectionOfficerRepository;
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import com.example.vehicleinspection.service.InspectionBookingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every booking list reads its rows with one joined query, plus one existence check where the path names
+ * an owner or officer. A list that starts loading owners, cars or officers per row fails here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bookinglists",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingListQueryCountTest {
+
+    private static final int BOOKINGS_PER_OWNER = 4;
+
+    @Autowired
+    private InspectionBookingService bookingService;
+    @Autowired
+    private InspectionBookingRepository bookingRepository;
+    @Autowired
+    private InspectionOfficerRepository officerRepository;
+    @Autowired
+    private VehicleOwnerRepository ownerRepository;
+    @Autowired
+    private CarRepository carRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private VehicleOwner owner;
+    private InspectionOfficer officer;
+    private LocalDateTime start;
+
+    @BeforeAll
+    void createBookings() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        start = LocalDate.now().plusDays(1).atTime(SlotCalendarIndex.OPENING_TIME);
+        officer = officer("Q-1");
+        InspectionOfficer otherOfficer = officer("Q-2");
+
+        List<InspectionBooking> bookings = new ArrayList<>();
+        for (int o = 0; o < 3; o++) {
+            VehicleOwner created = owner("Q-" + o);
+            if (owner == null) {
+                owner = created;
+            }
+            for (int b = 0; b < BOOKINGS_PER_OWNER; b++) {
+                InspectionBooking booking = new InspectionBooking();
+                booking.setVehicleOwner(created);
+                booking.setCar(car(created, "Q-" + o + "-" + b));
+                booking.setInspectionOfficer(b % 2 == 0 ? officer : otherOfficer);
+                booking.setScheduledDateTime(start.plusHours(o * BOOKINGS_PER_OWNER + b));
+                booking.setInspectionType("Annual");
+                booking.setStatus(InspectionBooking.InspectionStatus.SCHEDULED);
+                bookings.add(booking);
+            }
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void listsByStatusUseOneStatement() {
+        assertThat(statements(1, () -> bookingService.findByStatus(InspectionBooking.InspectionStatus.SCHEDULED)))
+                .hasSize(3 * BOOKINGS_PER_OWNER);
+        assertThat(statements(1, () -> bookingService.findByStatus(InspectionBooking.InspectionStatus.SCHEDULED, null, 5))
+                .getItems()).hasSize(5);
+    }
+
+    @Test
+    void listsByDateRangeUseOneStatement() {
+        LocalDateTime end = start.plusDays(1);
+        assertThat(statements(1, () -> bookingService.findByDateRange(start, end)))
+                .hasSize(3 * BOOKINGS_PER_OWNER);
+        assertThat(statements(1, () -> bookingService.findByDateRange(start, end, null, 5)).getItems())
+                .hasSize(5);
+    }
+
+    @Test
+    void listsByOwnerCheckTheOwnerAndUseOneStatement() {
+        assertThat(statements(2, () -> bookingService.findByVehicleOwner(owner.getId())))
+                .hasSize(BOOKINGS_PER_OWNER);
+        assertThat(statements(2, () -> bookingService.findByOwnerAndStatus(owner.getId(),
+                InspectionBooking.InspectionStatus.SCHEDULED)))
+                .hasSize(BOOKINGS_PER_OWNER);
+    }
+
+    @Test
+    void listsByOfficerCheckTheOfficerAndUseOneStatement() {
+        List<InspectionBookingDTO> bookings = statements(2, () -> bookingService.findByInspectionOfficer(officer.getId()));
+        assertThat(bookings).hasSize(3 * BOOKINGS_PER_OWNER / 2);
+        assertThat(bookings).allSatisfy(booking -> assertThat(booking.getOfficerName()).isEqualTo("Query Q-1"));
+        assertThat(statements(2, () -> bookingService.findByOfficerAndDateRange(officer.getId(), start, start.plusDays(1))))
+                .hasSize(3 * BOOKINGS_PER_OWNER / 2);
+    }
+
+    private <T> T statements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertThat(statistics.getPrepareStatementCount()).as("JDBC statements").isEqualTo(expected);
+        return result;
+    }
+
+    private VehicleOwner owner(String key) {
+        VehicleOwner created = new VehicleOwner();
+        created.setDriverLicense("DL-" + key);
+        created.setFirstName("Query");
+        created.setLastName(key);
+        return ownerRepository.save(created);
+    }
+
+    private Car car(VehicleOwner carOwner, String key) {
+        Car car = new Car();
+        car.setLicensePlate("PL-" + key);
+        car.setMake("Toyota");
+        car.setModel("Corolla");
+        car.setInsuranceProvider("Acme");
+        car.setOwner(carOwner);
+        return carRepository.save(car);
+    }
+
+    private InspectionOfficer officer(String key) {
+        InspectionOfficer created = new InspectionOfficer();
+        created.setBadgeNumber("B-" + key);
+        created.setFirstName("Query");
+        created.setLastName(key);
+        created.setAvailable(true);
+        return officerRepository.save(created);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.vehicleinspection.service.impl;
+
+import com.example.vehicleinspection.dto.InspectionBookingDTO;
+import com.example.vehicleinspection.dto.InspectionBookingView;
+import com.example.vehicleinspection.model.Car;
+import com.example.vehicleinspection.model.InspectionBooking;
+import com.example.vehicleinspection.model.InspectionOfficer;
+import com.example.vehicleinspection.model.VehicleOwner;
+import com.example.vehicleinspection.repository.CarRepository;
+import com.example.vehicleinspection.repository.InspectionBookingRepository;
+import com.example.vehicleinspection.repository.InspectionOfficerRepository;
+import com.example.vehicleinspection.repository.SlotClaimRepository;
+import com.example.vehicleinspection.repository.VehicleOwnerRepository;
+import com.example.vehicleinspection.service.InspectionBookingService;
+import com.example.vehicleinspection.service.VehicleOwnerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A long lock timeout, so threads queue on the officer row instead of giving up under load
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:slotreservations;LOCK_TIMEOUT=30000")
+class SlotReservationsConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+
+    @Autowired
+    private InspectionBookingService bookingService;
+    @Autowired
+    private VehicleOwnerService ownerService;
+    @Autowired
+    private InspectionBookingRepository bookingRepository;
+    @Autowired
+    private InspectionOfficerRepository officerRepository;
+    @Autowired
+    private VehicleOwnerRepository ownerRepository;
+    @Autowired
+    private CarRepository carRepository;
+    @Autowired
+    private SlotClaimRepository slotClaimRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void manyThreadsNeverDoubleBookOneOfficer() throws Exception {
+        VehicleOwner owner = owner("STRESS-1");
+        Car car = car(owner, "STRESS-1");
+        InspectionOfficer officer = officer("STRESS-1");
+        LocalDateTime opening = LocalDate.now().plusDays(1).atTime(SlotCalendarIndex.OPENING_TIME);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<LocalDateTime>>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Random random = new Random(thread);
+            results.add(executor.submit(() -> {
+                List<LocalDateTime> booked = new ArrayList<>();
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    // Any minute of the day, so close bookings often fall into different hourly claims
+                    LocalDateTime slot = opening.plusMinutes(random.nextInt(8 * 60));
+                    try {
+                        bookingService.createBooking(request(owner, car, officer, slot));
+                        booked.add(slot);
+                    } catch (RuntimeException e) {
+                        // Rejected bookings roll back and leave nothing behind
+                    }
+                }
+                return booked;
+            }));
+        }
+        start.countDown();
+
+        List<LocalDateTime> booked = new ArrayList<>();
+        for (Future<List<LocalDateTime>> result : results) {
+            booked.addAll(result.get(5, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        List<LocalDateTime> committed = bookingRepository.findViewsByInspectionOfficerId(officer.getId()).stream()
+                .map(InspectionBookingView::getScheduledDateTime)
+                .sorted()
+                .collect(Collectors.toList());
+        assertThat(committed).isNotEmpty().containsExactlyInAnyOrderElementsOf(booked);
+        for (int i = 1; i < committed.size(); i++) {
+            assertThat(Duration.between(committed.get(i - 1), committed.get(i)).toMinutes())
+                    .isGreaterThan(SlotCalendarIndex.SLOT_MINUTES);
+        }
+        assertThat(slotClaimRepository.findAll().stream()
+                .filter(claim -> claim.getOfficerId().equals(officer.getId())))
+                .hasSize(committed.size());
+    }
+
+    @Test
+    void bookingCommittedByAnotherInstanceBlocksTheNextHour() {
+        VehicleOwner owner = owner("STRESS-2");
+        Car car = car(owner, "STRESS-2");
+        InspectionOfficer officer = officer("STRESS-2");
+        LocalDateTime elsewhere = LocalDate.now().plusDays(1).atTime(9, 59);
+
+        // Written straight to the database, as another instance would; this instance's calendar never sees it
+        transactionTemplate.executeWithoutResult(status -> {
+            InspectionBooking booking = new InspectionBooking();
+            booking.setVehicleOwner(owner);
+            booking.setCar(car);
+            booking.setInspectionOfficer(officer);
+            booking.setScheduledDateTime(elsewhere);
+            booking.setInspectionType("Annual");
+            booking.setStatus(InspectionBooking.InspectionStatus.SCHEDULED);
+            bookingRepository.save(booking);
+        });
+
+        assertThatThrownBy(() -> bookingService.createBooking(request(owner, car, officer, elsewhere.plusMinutes(2))))
+                .hasMessage("Time slot is not available for the selected officer");
+        assertThat(bookingService.createBooking(request(owner, car, officer, elsewhere.plusMinutes(61))).getId())
+                .isNotNull();
+    }
+
+    @Test
+    void deletingAnOwnerFreesTheSlotsOfItsBookings() {
+        VehicleOwner owner = owner("STRESS-3");
+        InspectionOfficer officer = officer("STRESS-3");
+        LocalDateTime slot = LocalDate.now().plusDays(1).atTime(10, 0);
+        Long bookingId = bookingService.createBooking(request(owner, car(owner, "STRESS-3"), officer, slot)).getId();
+
+        ownerService.deleteById(owner.getId());
+
+        assertThat(bookingRepository.existsById(bookingId)).isFalse();
+        assertThat(slotClaimRepository.findAll().stream()
+                .filter(claim -> claim.getBookingId().equals(bookingId)))
+                .isEmpty();
+        assertThat(bookingService.isTimeSlotAvailable(officer.getId(), slot)).isTrue();
+        VehicleOwner nextOwner = owner("STRESS-4");
+        assertThat(bookingService.createBooking(request(nextOwner, car(nextOwner, "STRESS-4"), officer, slot)).getId())
+                .isNotNull();
+    }
+
+    private InspectionBookingDTO request(VehicleOwner owner, Car car, InspectionOfficer officer, LocalDateTime slot) {
+        InspectionBookingDTO request = new InspectionBookingDTO();
+        request.setVehicleOwnerId(owner.getId());
+        request.setCarId(car.getId());
+        request.setInspectionOfficerId(officer.getId());
+        request.setScheduledDateTime(slot);
+        request.setInspectionType("Annual");
+        return request;
+    }
+
+    private VehicleOwner owner(String key) {
+        VehicleOwner owner = new VehicleOwner();
+        owner.setDriverLicense("DL-" + key);
+        owner.setFirstName("Stress");
+        owner.setLastName(key);
+        return ownerRepository.save(owner);
+    }
+
+    private Car car(VehicleOwner owner, String key) {
+        Car car = new Car();
+        car.setLicensePlate("PL-" + key);
+        car.setMake("Toyota");
+        car.setModel("Corolla");
+        car.setInsuranceProvider("Acme");
+        car.setOwner(owner);
+        return carRepository.save(car);
+    }
+
+    private InspectionOfficer officer(String key) {
+        InspectionOfficer officer = new InspectionOfficer();
+        officer.setBadgeNumber("B-" + key);
+        officer.setFirstName("Stress");
+        officer.setLastName(key);
+        officer.setAvailable(true);
+        officer.setSpecialization("Annual");
+        return officerRepository.save(officer);
+    }
+}